@@ -0,0 +1,59 @@
+package com.structuralengineering.rcbeam.benchmarks;
+
+import com.structuralengineering.rcbeam.analysis.BeamAnalyses;
+import com.structuralengineering.rcbeam.analysis.BeamAnalysisResult;
+import com.structuralengineering.rcbeam.analysis.StressDistribution;
+import com.structuralengineering.rcbeam.properties.BeamSection;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput and latency of every analysis path, per section shape.
+ * SampleTime mode reports the latency percentiles; run with -prof gc for
+ * the allocation rate.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AnalysisBenchmark {
+
+    @Param({"RECTANGLE", "TRIANGLE", "T_BEAM", "HOLLOW", "CIRCLE_256", "HOLLOW_CIRCLE_1024"})
+    public BenchmarkSections.Shape shape;
+
+    private BeamAnalyses analyses;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BeamSection beamSection = BenchmarkSections.create(shape);
+        analyses = new BeamAnalyses(beamSection);
+    }
+
+    @Benchmark
+    public BeamAnalysisResult uncrackedAnalysis() {
+        return analyses.uncrackedAnalysis();
+    }
+
+    @Benchmark
+    public BeamAnalysisResult capacityParabolic() {
+        return analyses.beamCapacityAnalysis(StressDistribution.PARABOLIC);
+    }
+
+    @Benchmark
+    public BeamAnalysisResult capacityWhitney() {
+        return analyses.beamCapacityAnalysis(StressDistribution.WHITNEY);
+    }
+
+    @Benchmark
+    public BeamAnalysisResult balancedParabolic() {
+        return analyses.balancedAnalysis(StressDistribution.PARABOLIC);
+    }
+
+    @Benchmark
+    public BeamAnalysisResult balancedWhitney() {
+        return analyses.balancedAnalysis(StressDistribution.WHITNEY);
+    }
+}
@@ -0,0 +1,101 @@
+package com.structuralengineering.rcbeam.benchmarks;
+
+import com.structuralengineering.rcbeam.properties.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Beam sections shared by the benchmarks. The small shapes are the ones
+ * used in the testers; the circles stand in for large imported polygons.
+ */
+public final class BenchmarkSections {
+
+    public enum Shape {
+        RECTANGLE,
+        TRIANGLE,
+        T_BEAM,
+        HOLLOW,
+        CIRCLE_256,
+        HOLLOW_CIRCLE_1024
+    }
+
+    private BenchmarkSections() {
+    }
+
+    /**
+     * Builds a reinforced beam section of the given shape.
+     *
+     * @param shape Shape of the concrete section.
+     * @return BeamSection
+     */
+    public static BeamSection create(Shape shape) {
+        Section section = new Section();
+        double d;
+        switch (shape) {
+            case RECTANGLE:
+                section.setMainSection(polygon(0, 0, 0, 500, 300, 500, 300, 0));
+                d = 440;
+                break;
+            case TRIANGLE:
+                section.setMainSection(polygon(0, 0, 150, 600, 300, 0));
+                d = 540;
+                break;
+            case T_BEAM:
+                section.setMainSection(polygon(0, 0, 0, 300, -300, 300, -300, 400,
+                        500, 400, 500, 300, 200, 300, 200, 0));
+                d = 340;
+                break;
+            case HOLLOW:
+                section.setMainSection(polygon(0, 0, 0, 500, 300, 500, 300, 0));
+                section.addClipping(polygon(100, 100, 100, 300, 200, 300, 200, 100));
+                d = 440;
+                break;
+            case CIRCLE_256:
+                section.setMainSection(circle(300, 256));
+                d = 520;
+                break;
+            default:
+                section.setMainSection(circle(300, 1024));
+                section.addClipping(circle(150, 1024));
+                d = 520;
+                break;
+        }
+
+        BeamSection beamSection = new BeamSection();
+        beamSection.setSection(section);
+        beamSection.setFcPrime(20);
+        beamSection.setFy(400);
+        beamSection.setEffectiveDepth(d);
+
+        SteelTension steelTension = new SteelTension();
+        steelTension.setTotalArea(shape == Shape.TRIANGLE ? 600 : 2000, Unit.METRIC);
+        SteelCompression steelCompression = new SteelCompression();
+        steelCompression.setdPrime(60, Unit.METRIC);
+        steelCompression.setTotalArea(400, Unit.METRIC);
+        beamSection.setSteelTension(steelTension);
+        beamSection.setSteelCompression(steelCompression);
+        return beamSection;
+    }
+
+    private static List<Node> polygon(double... coordinates) {
+        List<Node> nodes = new ArrayList<>();
+        for (int i = 0; i < coordinates.length; i += 2) {
+            nodes.add(new Node(coordinates[i], coordinates[i + 1]));
+        }
+        return nodes;
+    }
+
+    /**
+     * Regular polygon approximating a circle centered at (300, 300).
+     */
+    private static List<Node> circle(double radius, int vertices) {
+        List<Node> nodes = new ArrayList<>();
+        double center = 300;
+        for (int i = 0; i < vertices; i++) {
+            double angle = 2 * Math.PI * i / vertices;
+            nodes.add(new Node(center + radius * Math.cos(angle), center + radius * Math.sin(angle)));
+        }
+        return nodes;
+    }
+}
@@ -0,0 +1,87 @@
+package com.structuralengineering.rcbeam.benchmarks;
+
+import com.structuralengineering.rcbeam.properties.PreparedSection;
+import com.structuralengineering.rcbeam.properties.Section;
+import com.structuralengineering.rcbeam.properties.SectionWidthProfile;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the section queries. The profile entries are the width, area and
+ * moment queries the analyses run on the SectionWidthProfile of a
+ * PreparedSection. The section entries are the public Section queries, which
+ * read the profile cached by the Section. prepareSection is the cost of
+ * building that profile, paid once per geometry. The
+ * elevations cycle through a fixed set spread over the height of the
+ * section, so the queries cannot be folded into constants.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SectionQueryBenchmark {
+    private static final int ELEVATIONS = 1024;
+
+    @Param({"RECTANGLE", "TRIANGLE", "T_BEAM", "HOLLOW", "CIRCLE_256", "HOLLOW_CIRCLE_1024"})
+    public BenchmarkSections.Shape shape;
+
+    private Section section;
+    private SectionWidthProfile profile;
+    private double[] elevations;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        section = BenchmarkSections.create(shape).getSection();
+        profile = new PreparedSection(section.getPackedPolygon()).getWidthProfile();
+        double top = profile.getHighestElevation();
+        double bottom = profile.getLowestElevation();
+        elevations = new double[ELEVATIONS];
+        for (int i = 0; i < ELEVATIONS; i++) {
+            elevations[i] = bottom + (top - bottom) * (i + 0.5) / ELEVATIONS;
+        }
+    }
+
+    private double nextElevation() {
+        next = (next + 1) & (ELEVATIONS - 1);
+        return elevations[next];
+    }
+
+    @Benchmark
+    public double profileWidth() {
+        return profile.width(nextElevation());
+    }
+
+    @Benchmark
+    public double profileAreaAbove() {
+        return profile.areaAbove(nextElevation());
+    }
+
+    @Benchmark
+    public double profileMomentAbove() {
+        return profile.momentAbove(nextElevation());
+    }
+
+    @Benchmark
+    public PreparedSection prepareSection() {
+        return new PreparedSection(section.getPackedPolygon());
+    }
+
+    @Benchmark
+    public double effectiveWidth() {
+        return section.getEffectiveWidth(nextElevation());
+    }
+
+    @Benchmark
+    public double areaAboveAxis() {
+        return section.areaAboveAxis(nextElevation());
+    }
+
+    @Benchmark
+    public double centroidAboveAxis() {
+        return section.centroidAboveAxis(nextElevation());
+    }
+}
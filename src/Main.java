@@ -1,8 +1,23 @@
-public class Main {
-    public static void main(String[] args) {
-        printString("Reinforced Concrete Beam Analysis");
-        printLine();
+import com.structuralengineering.rcbeam.cli.BatchCommand;
+import com.structuralengineering.rcbeam.server.AnalysisServer;
+
+import java.io.IOException;
+import java.util.Arrays;
 
+public class Main {
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0 && args[0].equals("serve")) {
+            AnalysisServer.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length == 0) {
+            printString("Reinforced Concrete Beam Analysis");
+            printLine();
+        }
+        int status = BatchCommand.run(args, System.out, System.err);
+        if (status != 0) {
+            System.exit(status);
+        }
     }
 
     private static void printString(String str) {
@@ -0,0 +1,76 @@
+package com.structuralengineering.rcbeam;
+
+import com.structuralengineering.rcbeam.analysis.BeamAnalyses;
+import com.structuralengineering.rcbeam.analysis.IntegrationMethod;
+import com.structuralengineering.rcbeam.analysis.StressDistribution;
+import com.structuralengineering.rcbeam.properties.*;
+import com.structuralengineering.rcbeam.utils.BeamContants;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures the bytes allocated per strip by the reference strip integration.
+ */
+public class StripAllocationTester {
+
+    public static void main(String[] args) {
+        BeamSection bs = new BeamSection();
+        bs.setUnit(Unit.METRIC);
+
+        // T-Beam
+        List<Node> nodes = new ArrayList<>();
+        nodes.add(new Node(0, 0));
+        nodes.add(new Node(0, 300));
+        nodes.add(new Node(-300, 300));
+        nodes.add(new Node(-300, 400));
+        nodes.add(new Node(500, 400));
+        nodes.add(new Node(500, 300));
+        nodes.add(new Node(200, 300));
+        nodes.add(new Node(200, 0));
+
+        Section section = new Section();
+        section.setMainSection(nodes);
+        bs.setSection(section);
+
+        bs.setFcPrime(20);
+        bs.setEffectiveDepth(340);
+        bs.setFy(400);
+
+        SteelTension st = new SteelTension();
+        SteelCompression sc = new SteelCompression();
+        st.setTotalArea(3000, Unit.METRIC);
+        sc.setdPrime(60, Unit.METRIC);
+        sc.setTotalArea(500, Unit.METRIC);
+        bs.setSteelTension(st);
+        bs.setSteelCompression(sc);
+
+        BeamAnalyses analyses = new BeamAnalyses(bs);
+        analyses.setIntegrationMethod(IntegrationMethod.STRIP);
+
+        // Warm up
+        analyses.uncrackedAnalysis();
+        analyses.beamCapacityAnalysis(StressDistribution.PARABOLIC);
+
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+
+        long before = threads.getThreadAllocatedBytes(thread);
+        analyses.uncrackedAnalysis();
+        long bytes = threads.getThreadAllocatedBytes(thread) - before;
+        long strips = 2L * BeamContants.UNCRACKED_STRIP_ITERATION;
+        printString("Uncracked: " + bytes + " bytes for " + strips + " strips = "
+                + (double) bytes / strips + " bytes/strip");
+
+        before = threads.getThreadAllocatedBytes(thread);
+        analyses.beamCapacityAnalysis(StressDistribution.PARABOLIC);
+        bytes = threads.getThreadAllocatedBytes(thread) - before;
+        printString("Parabolic capacity: " + bytes + " bytes");
+    }
+
+    private static void printString(String str) {
+        System.out.println(str);
+    }
+}
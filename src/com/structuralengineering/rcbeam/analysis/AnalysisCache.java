@@ -0,0 +1,264 @@
+package com.structuralengineering.rcbeam.analysis;
+
+import com.structuralengineering.rcbeam.properties.BeamSection;
+import com.structuralengineering.rcbeam.properties.PackedPolygon;
+import com.structuralengineering.rcbeam.properties.PreparedSection;
+import com.structuralengineering.rcbeam.properties.Unit;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of analysis results in front of a BeamAnalysisEngine.
+ *
+ * Results are keyed by the content of the beam section, not its identity:
+ * the polygon coordinates shifted so the lowest and leftmost vertices lie on
+ * the axes, the ring layout, every material and reinforcement input the
+ * engine reads, the analysis and the stress distribution. Two sections that
+ * differ only by a translation therefore share an entry. Keys are compared
+ * in full, so a hash collision never returns the wrong result.
+ *
+ * The least recently used entry is evicted once the cache is full. The
+ * cache is safe to share between threads; a result missing for two threads
+ * at once may be computed twice.
+ */
+public class AnalysisCache {
+    // = = = = = = = = = = = = = = = = = = = = = =
+    //
+    // Properties
+    //
+    // = = = = = = = = = = = = = = = = = = = = = =
+    private final BeamAnalysisEngine engine;                    // Computes the missing results
+    private final int maxEntries;                               // Size limit
+    private final LinkedHashMap<Key, BeamAnalysisResult> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Constructor that sets the engine and the size limit.
+     *
+     * @param engine     Engine used for the results not found in the cache.
+     * @param maxEntries Maximum number of results kept, at least 1.
+     */
+    public AnalysisCache(BeamAnalysisEngine engine, int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Cache size must be at least 1.");
+        }
+        this.engine = engine;
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<Key, BeamAnalysisResult>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, BeamAnalysisResult> eldest) {
+                if (size() > AnalysisCache.this.maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    // = = = = = = = = = = = = = = = = = = = = = =
+    //
+    // Getters
+    //
+    // = = = = = = = = = = = = = = = = = = = = = =
+
+    public BeamAnalysisEngine getEngine() {
+        return engine;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * Fraction of lookups answered from the cache.
+     *
+     * @return hit rate, 0 before the first lookup
+     */
+    public double getHitRate() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    // = = = = = = = = = = = = = = = = = = = = = =
+    //
+    // Methods
+    //
+    // = = = = = = = = = = = = = = = = = = = = = =
+
+    /**
+     * Cached BeamAnalysisEngine.uncrackedAnalysis.
+     *
+     * @param beamSection Beam section to be analyzed.
+     * @return A copy of the result, without stats on a hit.
+     */
+    public BeamAnalysisResult uncrackedAnalysis(BeamSection beamSection) {
+        return lookup(beamSection, AnalysisType.UNCRACKED, null);
+    }
+
+    /**
+     * Cached BeamAnalysisEngine.beamCapacityAnalysis.
+     *
+     * @param beamSection Beam section to be analyzed.
+     * @param sd          Stress distribution type.
+     * @return A copy of the result, without stats on a hit.
+     */
+    public BeamAnalysisResult beamCapacityAnalysis(BeamSection beamSection, StressDistribution sd) {
+        return lookup(beamSection, AnalysisType.CAPACITY, sd);
+    }
+
+    /**
+     * Cached BeamAnalysisEngine.balancedAnalysis.
+     *
+     * @param beamSection Beam section to be analyzed.
+     * @param sd          Stress distribution block.
+     * @return A copy of the result, without stats on a hit.
+     */
+    public BeamAnalysisResult balancedAnalysis(BeamSection beamSection, StressDistribution sd) {
+        return lookup(beamSection, AnalysisType.BALANCED, sd);
+    }
+
+    /**
+     * Removes all results and resets the statistics.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        hits.reset();
+        misses.reset();
+        evictions.reset();
+    }
+
+    /**
+     * Returns a copy of the cached result, or analyzes the section and
+     * caches a copy of the result. Only a miss carries AnalysisStats, those
+     * of the analysis it ran; a hit ran no analysis and has no stats.
+     *
+     * @param beamSection Beam section to be analyzed.
+     * @param type        Analysis to run.
+     * @param sd          Stress distribution, null for the uncracked analysis.
+     * @return BeamAnalysisResult owned by the caller
+     */
+    private BeamAnalysisResult lookup(BeamSection beamSection, AnalysisType type, StressDistribution sd) {
+        PreparedSection prepared = new PreparedSection(beamSection.getSection());
+        Key key = new Key(prepared.getPackedPolygon(), beamSection, type, sd);
+        BeamAnalysisResult cached;
+        synchronized (this) {
+            cached = entries.get(key);
+        }
+        if (cached != null) {
+            hits.increment();
+            return new BeamAnalysisResult(cached);
+        }
+
+        misses.increment();
+        BeamAnalysisResult result = engine.analyze(type, beamSection, prepared, sd);
+        BeamAnalysisResult stored = new BeamAnalysisResult(result);
+        stored.setStats(null);                                  // Copied into every hit
+        synchronized (this) {
+            entries.put(key, stored);
+        }
+        return result;
+    }
+
+    /**
+     * Canonical content of one analysis request.
+     */
+    private static final class Key {
+        private final AnalysisType type;
+        private final StressDistribution sd;
+        private final int[] ringOffsets;                // Ring layout of the polygon
+        private final double[] values;                  // Translated coordinates, then the scalar inputs
+        private final int hash;
+
+        Key(PackedPolygon polygon, BeamSection beamSection, AnalysisType type, StressDistribution sd) {
+            this.type = type;
+            this.sd = sd;
+
+            double[] xs = polygon.getXs();
+            double[] ys = polygon.getYs();
+            int count = polygon.getVertexCount();
+            this.ringOffsets = new int[polygon.getRingCount() + 1];
+            for (int r = 0; r < polygon.getRingCount(); r++) {
+                this.ringOffsets[r] = polygon.getRingStart(r);
+            }
+            this.ringOffsets[polygon.getRingCount()] = count;
+
+            double xMin = Double.POSITIVE_INFINITY, yMin = Double.POSITIVE_INFINITY;
+            for (int i = 0; i < count; i++) {
+                xMin = Math.min(xMin, xs[i]);
+                yMin = Math.min(yMin, ys[i]);
+            }
+
+            Unit unit = beamSection.getUnit();
+            this.values = new double[2 * count + 13];
+            int k = 0;
+            for (int i = 0; i < count; i++) {
+                // Adding 0.0 turns -0.0 into 0.0 so both hash alike
+                this.values[k++] = xs[i] - xMin + 0.0;
+                this.values[k++] = ys[i] - yMin + 0.0;
+            }
+            this.values[k++] = beamSection.getFcPrime();
+            this.values[k++] = beamSection.getFy();
+            this.values[k++] = beamSection.getFr();
+            this.values[k++] = beamSection.getEc();
+            this.values[k++] = beamSection.getModularRatio();
+            this.values[k++] = beamSection.getConcreteStrainIndex();
+            this.values[k++] = beamSection.getEffectiveDepth();
+            this.values[k++] = beamSection.getSteelTension().getTotalArea(unit);
+            this.values[k++] = beamSection.getSteelTension().getTotalArea(Unit.METRIC);
+            this.values[k++] = beamSection.getSteelCompression().getTotalArea(unit);
+            this.values[k++] = beamSection.getSteelCompression().getTotalArea(Unit.METRIC);
+            this.values[k++] = beamSection.getSteelCompression().getdPrime(unit);
+            this.values[k] = beamSection.getSteelCompression().getdPrime(Unit.METRIC);
+
+            int h = type.hashCode();
+            h = 31 * h + (sd == null ? 0 : sd.hashCode());
+            h = 31 * h + Arrays.hashCode(this.ringOffsets);
+            h = 31 * h + Arrays.hashCode(this.values);
+            this.hash = h;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return hash == other.hash
+                    && type == other.type
+                    && sd == other.sd
+                    && Arrays.equals(ringOffsets, other.ringOffsets)
+                    && Arrays.equals(values, other.values);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.structuralengineering.rcbeam.analysis;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * Thrown from inside an analysis when its AnalysisMonitor was cancelled or
+ * its deadline passed.
+ */
+public class AnalysisCancelledException extends CancellationException {
+    private static final long serialVersionUID = 1L;
+
+    private final boolean deadlineExceeded;
+
+    public AnalysisCancelledException(String message, boolean deadlineExceeded) {
+        super(message);
+        this.deadlineExceeded = deadlineExceeded;
+    }
+
+    /**
+     * Whether the analysis was stopped by its deadline rather than cancelled.
+     *
+     * @return true if the deadline passed
+     */
+    public boolean isDeadlineExceeded() {
+        return deadlineExceeded;
+    }
+}
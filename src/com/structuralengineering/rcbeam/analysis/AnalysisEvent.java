@@ -0,0 +1,55 @@
+package com.structuralengineering.rcbeam.analysis;
+
+import com.structuralengineering.rcbeam.properties.PreparedSection;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event spanning one whole analysis.
+ */
+@Name("com.structuralengineering.rcbeam.Analysis")
+@Label("Beam Analysis")
+@Category("RC Beam")
+@Description("One uncracked, capacity or balanced analysis of a beam section")
+@StackTrace(false)
+class AnalysisEvent extends Event {
+    @Label("Analysis")
+    String analysis;
+
+    @Label("Stress Distribution")
+    String stressDistribution;
+
+    @Label("Vertex Count")
+    int vertexCount;
+
+    @Label("Clipping Count")
+    int clippingCount;
+
+    @Label("Iterations")
+    int iterations;
+
+    /**
+     * Ends the event and commits it if it is enabled and over its threshold.
+     * The fields are only filled in when the event is committed.
+     *
+     * @param type       Analysis that ran.
+     * @param sd         Stress distribution, or null.
+     * @param section    Prepared geometry of the beam section.
+     * @param iterations Solver iterations used.
+     */
+    void finish(AnalysisType type, StressDistribution sd, PreparedSection section, int iterations) {
+        end();
+        if (shouldCommit()) {
+            this.analysis = type.name();
+            this.stressDistribution = sd == null ? null : sd.name();
+            this.vertexCount = section.getPackedPolygon().getVertexCount();
+            this.clippingCount = section.getPackedPolygon().getRingCount() - 1;
+            this.iterations = iterations;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.structuralengineering.rcbeam.analysis;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleConsumer;
+
+/**
+ * Cooperative cancellation, deadline and progress reporting for one analysis.
+ *
+ * The engine calls checkpoint between phases, on every solver evaluation and
+ * every few thousand strips of the strip integration. A checkpoint throws
+ * AnalysisCancelledException once cancel has been called from any thread or
+ * the deadline has passed, and passes the fraction done to the progress
+ * listener. An analysis without a monitor does none of this.
+ */
+public final class AnalysisMonitor {
+    private volatile boolean cancelled;
+    private final long deadline;                                // System.nanoTime of the deadline
+    private final boolean hasDeadline;
+    private final DoubleConsumer progressListener;              // null for no progress reports
+
+    /**
+     * Constructor of a monitor without deadline or progress reports.
+     */
+    public AnalysisMonitor() {
+        this(0, null, null);
+    }
+
+    /**
+     * Constructor that sets a deadline from now and a progress listener.
+     *
+     * @param timeout          Time allowed, 0 or less for no deadline
+     * @param unit             Unit of the timeout, may be null without deadline
+     * @param progressListener Called on the analysis thread with the fraction
+     *                         done, between 0 and 1, or null
+     */
+    public AnalysisMonitor(long timeout, TimeUnit unit, DoubleConsumer progressListener) {
+        this.hasDeadline = timeout > 0;
+        this.deadline = this.hasDeadline ? System.nanoTime() + unit.toNanos(timeout) : 0;
+        this.progressListener = progressListener;
+    }
+
+    // = = = = = = = = = = = = = = = = = = = = = =
+    //
+    // Getters
+    //
+    // = = = = = = = = = = = = = = = = = = = = = =
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public boolean isDeadlineExceeded() {
+        return hasDeadline && System.nanoTime() - deadline > 0;
+    }
+
+    // = = = = = = = = = = = = = = = = = = = = = =
+    //
+    // Methods
+    //
+    // = = = = = = = = = = = = = = = = = = = = = =
+
+    /**
+     * Asks the analysis to stop at its next checkpoint. Safe to call from any thread.
+     */
+    public void cancel() {
+        this.cancelled = true;
+    }
+
+    /**
+     * Throws if the analysis should stop.
+     *
+     * @throws AnalysisCancelledException if cancelled or past the deadline
+     */
+    public void checkpoint() {
+        if (cancelled) {
+            throw new AnalysisCancelledException("Analysis was cancelled.", false);
+        }
+        if (isDeadlineExceeded()) {
+            throw new AnalysisCancelledException("Analysis deadline exceeded.", true);
+        }
+    }
+
+    /**
+     * Throws if the analysis should stop, otherwise reports its progress.
+     *
+     * @param fraction Fraction of the analysis done, between 0 and 1
+     * @throws AnalysisCancelledException if cancelled or past the deadline
+     */
+    public void checkpoint(double fraction) {
+        checkpoint();
+        if (progressListener != null) {
+            progressListener.accept(fraction);
+        }
+    }
+}
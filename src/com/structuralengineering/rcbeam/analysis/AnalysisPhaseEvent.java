@@ -0,0 +1,65 @@
+package com.structuralengineering.rcbeam.analysis;
+
+import com.structuralengineering.rcbeam.properties.PreparedSection;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event spanning one phase inside an analysis.
+ */
+@Name("com.structuralengineering.rcbeam.AnalysisPhase")
+@Label("Beam Analysis Phase")
+@Category("RC Beam")
+@Description("Stress integration, equilibrium solve, centroid integration or minimum steel search")
+@StackTrace(false)
+class AnalysisPhaseEvent extends Event {
+    static final String STRESS_INTEGRATION = "Stress integration";       // Uncracked Cc and Tc
+    static final String EQUILIBRIUM_SOLVE = "Equilibrium solve";         // Neutral axis search
+    static final String CENTROID_INTEGRATION = "Centroid integration";   // Final compression resultant
+    static final String ASMIN_SEARCH = "Asmin search";                   // Minimum steel block depth
+
+    @Label("Analysis")
+    String analysis;
+
+    @Label("Phase")
+    String phase;
+
+    @Label("Stress Distribution")
+    String stressDistribution;
+
+    @Label("Vertex Count")
+    int vertexCount;
+
+    @Label("Clipping Count")
+    int clippingCount;
+
+    @Label("Iterations")
+    int iterations;
+
+    /**
+     * Ends the event and commits it if it is enabled and over its threshold.
+     * The fields are only filled in when the event is committed.
+     *
+     * @param type       Analysis the phase belongs to.
+     * @param phase      One of the phase names of this class.
+     * @param sd         Stress distribution, or null.
+     * @param section    Prepared geometry of the beam section.
+     * @param iterations Solver iterations used in the phase.
+     */
+    void finish(AnalysisType type, String phase, StressDistribution sd, PreparedSection section, int iterations) {
+        end();
+        if (shouldCommit()) {
+            this.analysis = type.name();
+            this.phase = phase;
+            this.stressDistribution = sd == null ? null : sd.name();
+            this.vertexCount = section.getPackedPolygon().getVertexCount();
+            this.clippingCount = section.getPackedPolygon().getRingCount() - 1;
+            this.iterations = iterations;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.structuralengineering.rcbeam.analysis;
+
+/**
+ * Numerical settings of the beam analyses.
+ */
+public class AnalysisSettings {
+    private IntegrationMethod integrationMethod = IntegrationMethod.EXACT;
+    private double integrationTolerance = 1e-6;                 // Relative tolerance of ADAPTIVE integration
+    private double solverTolerance = 1e-9;                      // Equilibrium tolerance relative to d
+    private int maxIterations = 100;                            // Iteration limit of the equilibrium solvers
+    private boolean collectStats = false;                       // Attach AnalysisStats to every result
+
+    /**
+     * Constructor with the default settings.
+     */
+    public AnalysisSettings() {
+    }
+
+    /**
+     * Copy constructor.
+     *
+     * @param other Settings to copy.
+     */
+    public AnalysisSettings(AnalysisSettings other) {
+        this.integrationMethod = other.integrationMethod;
+        this.integrationTolerance = other.integrationTolerance;
+        this.solverTolerance = other.solverTolerance;
+        this.maxIterations = other.maxIterations;
+        this.collectStats = other.collectStats;
+    }
+
+    // = = = = = = = = = = = = = = = = = = = = = =
+    //
+    // Getters
+    //
+    // = = = = = = = = = = = = = = = = = = = = = =
+
+    public IntegrationMethod getIntegrationMethod() {
+        return integrationMethod;
+    }
+
+    public double getIntegrationTolerance() {
+        return integrationTolerance;
+    }
+
+    public double getSolverTolerance() {
+        return solverTolerance;
+    }
+
+    public int getMaxIterations() {
+        return maxIterations;
+    }
+
+    public boolean isCollectStats() {
+        return collectStats;
+    }
+
+    // = = = = = = = = = = = = = = = = = = = = = =
+    //
+    // Setters
+    //
+    // = = = = = = = = = = = = = = = = = = = = = =
+
+    /**
+     * Sets the method used to integrate concrete stresses.
+     * STRIP is the slow reference summation and PARALLEL_STRIP spreads it
+     * over the fork/join workers.
+     *
+     * @param integrationMethod IntegrationMethod
+     */
+    public void setIntegrationMethod(IntegrationMethod integrationMethod) {
+        this.integrationMethod = integrationMethod;
+    }
+
+    /**
+     * Sets the relative tolerance used by ADAPTIVE integration.
+     * Larger values trade accuracy for speed.
+     *
+     * @param integrationTolerance Relative tolerance
+     */
+    public void setIntegrationTolerance(double integrationTolerance) {
+        this.integrationTolerance = integrationTolerance;
+    }
+
+    /**
+     * Sets the tolerance of the equilibrium solvers, relative to the
+     * effective depth.
+     *
+     * @param solverTolerance Relative tolerance
+     */
+    public void setSolverTolerance(double solverTolerance) {
+        this.solverTolerance = solverTolerance;
+    }
+
+    /**
+     * Sets the iteration limit of the equilibrium solvers. A result that
+     * reaches it before meeting the tolerance reports isConverged false.
+     *
+     * @param maxIterations Iteration limit, at least 1
+     */
+    public void setMaxIterations(int maxIterations) {
+        if (maxIterations < 1) {
+            throw new IllegalArgumentException("Iteration limit must be at least 1.");
+        }
+        this.maxIterations = maxIterations;
+    }
+
+    /**
+     * Sets whether every result carries the AnalysisStats of its analysis.
+     * Off by default, in which case no counting or timing is done.
+     *
+     * @param collectStats true to collect stats
+     */
+    public void setCollectStats(boolean collectStats) {
+        this.collectStats = collectStats;
+    }
+}
@@ -0,0 +1,109 @@
+package com.structuralengineering.rcbeam.analysis;
+
+/**
+ * Counters and timings of a single analysis.
+ *
+ * Collected only when AnalysisSettings.isCollectStats is set; otherwise the
+ * analyses skip all bookkeeping and the result carries no stats. One
+ * instance belongs to one analysis and is not shared between threads.
+ */
+public class AnalysisStats {
+    private int solverIterations;               // Iterations of the equilibrium and Asmin solvers
+    private long widthEvaluations;              // Section width queries made by the integrations
+    private long polygonClips;                  // Polygon rings cut to a band by exact integration
+    private double residual;                    // Final residual of the last solver, NaN if none ran
+    private long kdSearchNanos;                 // Wall time spent solving for the neutral axis
+    private long integrationNanos;              // Wall time spent integrating the stress resultants
+    private long asminSearchNanos;              // Wall time spent solving for the minimum steel
+
+    public AnalysisStats() {
+        this.residual = Double.NaN;
+    }
+
+    // = = = = = = = = = = = = = = = = = = = = = =
+    //
+    // Getters
+    //
+    // = = = = = = = = = = = = = = = = = = = = = =
+
+    public int getSolverIterations() {
+        return solverIterations;
+    }
+
+    public long getWidthEvaluations() {
+        return widthEvaluations;
+    }
+
+    public long getPolygonClips() {
+        return polygonClips;
+    }
+
+    /**
+     * Residual of the last equilibrium or minimum steel solve, in N for the
+     * equilibrium and N-mm for the minimum steel.
+     *
+     * @return residual, NaN if no solver ran
+     */
+    public double getResidual() {
+        return residual;
+    }
+
+    public long getKdSearchNanos() {
+        return kdSearchNanos;
+    }
+
+    public long getIntegrationNanos() {
+        return integrationNanos;
+    }
+
+    public long getAsminSearchNanos() {
+        return asminSearchNanos;
+    }
+
+    // = = = = = = = = = = = = = = = = = = = = = =
+    //
+    // Methods
+    //
+    // = = = = = = = = = = = = = = = = = = = = = =
+
+    void addSolverIterations(int iterations) {
+        this.solverIterations += iterations;
+    }
+
+    void addWidthEvaluations(long evaluations) {
+        this.widthEvaluations += evaluations;
+    }
+
+    void addPolygonClips(long clips) {
+        this.polygonClips += clips;
+    }
+
+    void setResidual(double residual) {
+        this.residual = residual;
+    }
+
+    void addKdSearchNanos(long nanos) {
+        this.kdSearchNanos += nanos;
+    }
+
+    void addIntegrationNanos(long nanos) {
+        this.integrationNanos += nanos;
+    }
+
+    void addAsminSearchNanos(long nanos) {
+        this.asminSearchNanos += nanos;
+    }
+
+    @Override
+    public String toString() {
+        return "AnalysisStats{" +
+                "solverIterations=" + solverIterations +
+                ", widthEvaluations=" + widthEvaluations +
+                ", polygonClips=" + polygonClips +
+                ", residual=" + residual +
+                ", kdSearchNanos=" + kdSearchNanos +
+                ", integrationNanos=" + integrationNanos +
+                ", asminSearchNanos=" + asminSearchNanos +
+                '}';
+    }
+}
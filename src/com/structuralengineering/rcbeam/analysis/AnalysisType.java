@@ -0,0 +1,10 @@
+package com.structuralengineering.rcbeam.analysis;
+
+/**
+ * Analyses that can be requested for a beam section.
+ */
+public enum AnalysisType {
+    UNCRACKED,      // Cracking moment and minimum steel, see BeamAnalyses.uncrackedAnalysis
+    BALANCED,       // Balanced steel design, see BeamAnalyses.balancedAnalysis
+    CAPACITY        // Nominal moment capacity, see BeamAnalyses.beamCapacityAnalysis
+}
@@ -0,0 +1,189 @@
+package com.structuralengineering.rcbeam.analysis;
+
+import com.structuralengineering.rcbeam.properties.BeamSection;
+import com.structuralengineering.rcbeam.properties.PreparedSection;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.DoubleConsumer;
+
+/**
+ * Runs beam analyses asynchronously, with cancellation, deadlines and
+ * progress reports.
+ *
+ * Every call returns at once with a CompletableFuture. Cancelling that
+ * future stops the analysis at its next checkpoint, so the worker thread is
+ * freed instead of finishing a result nobody waits for. A deadline counts
+ * from the call, including the time spent queued: a shared timer completes
+ * the future with a TimeoutException as soon as it passes, and the analysis
+ * is then dropped from the queue or stopped at its next checkpoint. Only the
+ * future returned here stops the analysis; cancelling a future derived from
+ * it with thenApply and the like does not.
+ */
+public class AsyncAnalyses {
+    // Completes futures at their deadline, shared by all instances
+    private static final ScheduledThreadPoolExecutor DEADLINES = createDeadlineTimer();
+
+    // = = = = = = = = = = = = = = = = = = = = = =
+    //
+    // Properties
+    //
+    // = = = = = = = = = = = = = = = = = = = = = =
+    private final BeamAnalysisEngine engine;
+    private final Executor executor;
+
+    /**
+     * Constructor that runs the analyses with default settings on the common
+     * fork/join pool.
+     */
+    public AsyncAnalyses() {
+        this(new BeamAnalysisEngine(), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param engine   Engine that runs the analyses
+     * @param executor Executor the analyses run on
+     */
+    public AsyncAnalyses(BeamAnalysisEngine engine, Executor executor) {
+        this.engine = engine;
+        this.executor = executor;
+    }
+
+    // = = = = = = = = = = = = = = = = = = = = = =
+    //
+    // Methods
+    //
+    // = = = = = = = = = = = = = = = = = = = = = =
+
+    /**
+     * Starts an analysis without deadline.
+     *
+     * @param type        Analysis to run.
+     * @param beamSection Beam section to be analyzed.
+     * @param sd          Stress distribution used by the balanced and capacity analyses.
+     * @return Future of the BeamAnalysisResult.
+     */
+    public CompletableFuture<BeamAnalysisResult> analyze(AnalysisType type,
+                                                         BeamSection beamSection,
+                                                         StressDistribution sd) {
+        return analyze(type, beamSection, sd, 0, null, null);
+    }
+
+    /**
+     * Starts an analysis with a deadline and progress reports.
+     *
+     * @param type             Analysis to run.
+     * @param beamSection      Beam section to be analyzed.
+     * @param sd               Stress distribution used by the balanced and capacity analyses.
+     * @param timeout          Time allowed from now, 0 or less for no deadline
+     * @param unit             Unit of the timeout
+     * @param progressListener Called on the worker thread with the fraction
+     *                         done, between 0 and 1, or null
+     * @return Future of the BeamAnalysisResult.
+     */
+    public CompletableFuture<BeamAnalysisResult> analyze(AnalysisType type,
+                                                         BeamSection beamSection,
+                                                         StressDistribution sd,
+                                                         long timeout,
+                                                         TimeUnit unit,
+                                                         DoubleConsumer progressListener) {
+        return submit(type, beamSection, null, sd, timeout, unit, progressListener);
+    }
+
+    /**
+     * Starts an analysis of prepared geometry with a deadline and progress reports.
+     *
+     * @param type             Analysis to run.
+     * @param beamSection      Beam section to be analyzed.
+     * @param section          Prepared geometry of the beam section.
+     * @param sd               Stress distribution used by the balanced and capacity analyses.
+     * @param timeout          Time allowed from now, 0 or less for no deadline
+     * @param unit             Unit of the timeout
+     * @param progressListener Called on the worker thread with the fraction
+     *                         done, between 0 and 1, or null
+     * @return Future of the BeamAnalysisResult.
+     */
+    public CompletableFuture<BeamAnalysisResult> analyze(AnalysisType type,
+                                                         BeamSection beamSection,
+                                                         PreparedSection section,
+                                                         StressDistribution sd,
+                                                         long timeout,
+                                                         TimeUnit unit,
+                                                         DoubleConsumer progressListener) {
+        return submit(type, beamSection, section, sd, timeout, unit, progressListener);
+    }
+
+    private CompletableFuture<BeamAnalysisResult> submit(AnalysisType type,
+                                                         BeamSection beamSection,
+                                                         PreparedSection section,
+                                                         StressDistribution sd,
+                                                         long timeout,
+                                                         TimeUnit unit,
+                                                         DoubleConsumer progressListener) {
+        AnalysisMonitor monitor = new AnalysisMonitor(timeout, unit, progressListener);
+        CompletableFuture<BeamAnalysisResult> future = new CompletableFuture<BeamAnalysisResult>() {
+            @Override
+            public boolean cancel(boolean mayInterruptIfRunning) {
+                monitor.cancel();
+                return super.cancel(mayInterruptIfRunning);
+            }
+        };
+        if (timeout > 0) {
+            ScheduledFuture<?> timer = DEADLINES.schedule(() -> {
+                if (future.completeExceptionally(new TimeoutException("Analysis deadline exceeded."))) {
+                    monitor.cancel();
+                }
+            }, timeout, unit);
+            future.whenComplete((result, failure) -> timer.cancel(false));
+        }
+        try {
+            executor.execute(() -> run(future, type, beamSection, section, sd, monitor));
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    private static ScheduledThreadPoolExecutor createDeadlineTimer() {
+        ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, task -> {
+            Thread thread = new Thread(task, "rcbeam-analysis-deadlines");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer.setRemoveOnCancelPolicy(true);
+        return timer;
+    }
+
+    private void run(CompletableFuture<BeamAnalysisResult> future,
+                     AnalysisType type,
+                     BeamSection beamSection,
+                     PreparedSection section,
+                     StressDistribution sd,
+                     AnalysisMonitor monitor) {
+        if (future.isDone()) {
+            return;                                             // Cancelled or timed out while queued
+        }
+        try {
+            PreparedSection prepared = section != null ? section : new PreparedSection(beamSection.getSection());
+            future.complete(engine.analyze(type, beamSection, prepared, sd, monitor));
+        } catch (AnalysisCancelledException e) {
+            if (e.isDeadlineExceeded()) {
+                TimeoutException timeout = new TimeoutException(e.getMessage());
+                timeout.initCause(e);
+                future.completeExceptionally(timeout);
+            } else {
+                future.cancel(false);
+            }
+        } catch (RuntimeException | Error e) {
+            future.completeExceptionally(e);
+        }
+    }
+}
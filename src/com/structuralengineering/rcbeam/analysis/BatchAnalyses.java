@@ -0,0 +1,303 @@
+package com.structuralengineering.rcbeam.analysis;
+
+import com.structuralengineering.rcbeam.properties.BeamSection;
+import com.structuralengineering.rcbeam.properties.PreparedSection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Runs the beam analyses over many beam sections in parallel.
+ *
+ * The sections are split into index ranges that are analyzed as fork/join
+ * tasks, so idle workers steal ranges from busy ones. All tasks share one
+ * stateless BeamAnalysisEngine, and each result is written to the slot of
+ * its section, so the results come back in input order whatever the schedule.
+ *
+ * The workers are kept between batches; close the runner to release them.
+ */
+public class BatchAnalyses implements AutoCloseable {
+    // Ranges are split into about this many tasks per worker, to even out the load
+    private static final int TASKS_PER_WORKER = 8;
+
+    // = = = = = = = = = = = = = = = = = = = = = =
+    //
+    // Properties
+    //
+    // = = = = = = = = = = = = = = = = = = = = = =
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    private int granularity = 0;                                // Sections per task, 0 to choose automatically
+    private AnalysisSettings settings = new AnalysisSettings();
+    private ForkJoinPool pool;                                  // Created on first use
+    private final List<ForkJoinPool> retired = new ArrayList<>(); // Replaced pools, shut down once idle
+    private int running;                                        // Batches in progress
+    private boolean closed;
+
+    // = = = = = = = = = = = = = = = = = = = = = =
+    //
+    // Getters
+    //
+    // = = = = = = = = = = = = = = = = = = = = = =
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public int getGranularity() {
+        return granularity;
+    }
+
+    /**
+     * Settings used for every section of a batch.
+     *
+     * @return A copy of the settings.
+     */
+    public AnalysisSettings getSettings() {
+        return new AnalysisSettings(settings);
+    }
+
+    // = = = = = = = = = = = = = = = = = = = = = =
+    //
+    // Setters
+    //
+    // = = = = = = = = = = = = = = = = = = = = = =
+
+    /**
+     * Sets the number of worker threads. Defaults to the number of processors.
+     * Batches already running finish on the old workers, which are released
+     * once no batch is running.
+     *
+     * @param parallelism Number of workers, at least 1.
+     */
+    public synchronized void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1.");
+        }
+        if (parallelism != this.parallelism) {
+            retirePool();
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Sets the number of sections analyzed by one task before it stops splitting.
+     *
+     * @param granularity Sections per task, or 0 to choose from the batch size.
+     */
+    public void setGranularity(int granularity) {
+        this.granularity = granularity;
+    }
+
+    /**
+     * Sets the settings used for every section of a batch. They are copied.
+     *
+     * @param settings AnalysisSettings
+     */
+    public void setSettings(AnalysisSettings settings) {
+        this.settings = new AnalysisSettings(settings);
+    }
+
+    // = = = = = = = = = = = = = = = = = = = = = =
+    //
+    // Methods
+    //
+    // = = = = = = = = = = = = = = = = = = = = = =
+
+    /**
+     * Analyzes a stream of beam sections, see analyze(Collection, ...).
+     *
+     * @param sections Beam sections to analyze.
+     * @param sd       Stress distribution used by the balanced and capacity analyses.
+     * @param types    Analyses to run on every section.
+     * @return One array of results per section, in input order.
+     */
+    public List<BeamAnalysisResult[]> analyze(Stream<BeamSection> sections,
+                                              StressDistribution sd,
+                                              AnalysisType... types) {
+        return analyze(sections.collect(Collectors.toList()), sd, types);
+    }
+
+    /**
+     * Analyzes beam sections in parallel. The result array of each section
+     * holds the results of the requested analyses in the order of types.
+     * If an analysis throws, the whole batch fails with that exception.
+     *
+     * @param sections Beam sections to analyze.
+     * @param sd       Stress distribution used by the balanced and capacity analyses.
+     * @param types    Analyses to run on every section.
+     * @return One array of results per section, in input order.
+     */
+    public List<BeamAnalysisResult[]> analyze(Collection<BeamSection> sections,
+                                              StressDistribution sd,
+                                              AnalysisType... types) {
+        BeamSection[] input = sections.toArray(new BeamSection[0]);
+        return analyze(input.length,
+                i -> input[i],
+                i -> new PreparedSection(input[i].getSection()),
+                sd,
+                types);
+    }
+
+    /**
+     * Analyzes beam sections given by index in parallel, for sources that
+     * are not held as BeamSection objects. Both functions are called from
+     * the worker threads, once per index.
+     *
+     * @param count        Number of sections, indexed from 0.
+     * @param beamSections Materials and reinforcement of the section at an index.
+     * @param geometry     Prepared geometry of the section at an index.
+     * @param sd           Stress distribution used by the balanced and capacity analyses.
+     * @param types        Analyses to run on every section.
+     * @return One array of results per section, in index order.
+     * @throws IllegalStateException if the runner is closed
+     */
+    public List<BeamAnalysisResult[]> analyze(int count,
+                                              IntFunction<BeamSection> beamSections,
+                                              IntFunction<PreparedSection> geometry,
+                                              StressDistribution sd,
+                                              AnalysisType... types) {
+        BeamAnalysisResult[][] output = new BeamAnalysisResult[count][];
+        if (count == 0) {
+            return new ArrayList<>();
+        }
+
+        int leafSize = this.granularity;
+        if (leafSize < 1) {
+            leafSize = Math.max(1, count / (this.parallelism * TASKS_PER_WORKER));
+        }
+        AnalysisType[] requested = types.clone();
+        BeamAnalysisEngine engine = new BeamAnalysisEngine(this.settings);
+        ForkJoinPool workers = acquirePool();
+        try {
+            workers.invoke(new AnalysisTask(engine, beamSections, geometry, output, 0, count, leafSize, sd, requested));
+        } finally {
+            releasePool();
+        }
+        return Arrays.asList(output);
+    }
+
+    /**
+     * Releases the worker threads. Batches already running finish first;
+     * later batches are refused.
+     */
+    @Override
+    public synchronized void close() {
+        this.closed = true;
+        retirePool();
+    }
+
+    /**
+     * Analyzes one beam section.
+     *
+     * @param engine      Engine shared by the whole batch.
+     * @param beamSection Beam section to analyze.
+     * @param prepared    Geometry shared by every analysis of this section.
+     * @param sd          Stress distribution used by the balanced and capacity analyses.
+     * @param types       Analyses to run.
+     * @return Results in the order of types.
+     */
+    private static BeamAnalysisResult[] analyzeOne(BeamAnalysisEngine engine,
+                                                   BeamSection beamSection,
+                                                   PreparedSection prepared,
+                                                   StressDistribution sd,
+                                                   AnalysisType[] types) {
+        BeamAnalysisResult[] results = new BeamAnalysisResult[types.length];
+        for (int i = 0; i < types.length; i++) {
+            results[i] = engine.analyze(types[i], beamSection, prepared, sd);
+        }
+        return results;
+    }
+
+    /**
+     * Pool for one batch, counted as running until releasePool.
+     *
+     * @return ForkJoinPool
+     */
+    private synchronized ForkJoinPool acquirePool() {
+        if (this.closed) {
+            throw new IllegalStateException("Batch runner is closed.");
+        }
+        if (this.pool == null) {
+            this.pool = new ForkJoinPool(this.parallelism);
+        }
+        this.running++;
+        return this.pool;
+    }
+
+    private synchronized void releasePool() {
+        if (--this.running == 0) {
+            for (ForkJoinPool old : this.retired) {
+                old.shutdown();
+            }
+            this.retired.clear();
+        }
+    }
+
+    /**
+     * Stops using the current pool, shutting it down now if no batch is
+     * running or else when the last one ends.
+     */
+    private void retirePool() {
+        if (this.pool == null) {
+            return;
+        }
+        if (this.running == 0) {
+            this.pool.shutdown();
+        } else {
+            this.retired.add(this.pool);
+        }
+        this.pool = null;
+    }
+
+    /**
+     * Analyzes the sections in [from, to), splitting the range in halves
+     * until it is no larger than the leaf size.
+     */
+    private static class AnalysisTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final BeamAnalysisEngine engine;
+        private final IntFunction<BeamSection> beamSections;
+        private final IntFunction<PreparedSection> geometry;
+        private final BeamAnalysisResult[][] output;
+        private final int from;
+        private final int to;
+        private final int leafSize;
+        private final StressDistribution sd;
+        private final AnalysisType[] types;
+
+        AnalysisTask(BeamAnalysisEngine engine, IntFunction<BeamSection> beamSections,
+                     IntFunction<PreparedSection> geometry, BeamAnalysisResult[][] output,
+                     int from, int to, int leafSize, StressDistribution sd, AnalysisType[] types) {
+            this.engine = engine;
+            this.beamSections = beamSections;
+            this.geometry = geometry;
+            this.output = output;
+            this.from = from;
+            this.to = to;
+            this.leafSize = leafSize;
+            this.sd = sd;
+            this.types = types;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= leafSize) {
+                for (int i = from; i < to; i++) {
+                    output[i] = analyzeOne(engine, beamSections.apply(i), geometry.apply(i), sd, types);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new AnalysisTask(engine, beamSections, geometry, output, from, mid, leafSize, sd, types),
+                    new AnalysisTask(engine, beamSections, geometry, output, mid, to, leafSize, sd, types));
+        }
+    }
+}
@@ -0,0 +1,903 @@
+package com.structuralengineering.rcbeam.analysis;
+
+import com.structuralengineering.rcbeam.properties.*;
+import com.structuralengineering.rcbeam.utils.BeamContants;
+import com.structuralengineering.rcbeam.utils.RootFinder;
+import com.structuralengineering.rcbeam.utils.RootResult;
+
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Stateless engine for the reinforced concrete beam analyses.
+ *
+ * Every analysis is a function of the beam section passed in and of the
+ * settings fixed at construction, and returns all of its outputs in the
+ * result. An engine holds no other state, so one instance can be shared by
+ * any number of threads.
+ */
+public final class BeamAnalysisEngine {
+    // Keeps the equilibrium bracket clear of the singular ends kd = 0 and kd = d
+    private static final double BRACKET_MARGIN = 1e-9;
+
+    // = = = = = = = = = = = = = = = = = = = = = =
+    //
+    // Properties
+    //
+    // = = = = = = = = = = = = = = = = = = = = = =
+    private final IntegrationMethod integrationMethod;
+    private final double integrationTolerance;                  // Relative tolerance of ADAPTIVE integration
+    private final double solverTolerance;                       // Equilibrium tolerance relative to d
+    private final int maxIterations;                            // Iteration limit of the equilibrium solvers
+    private final boolean collectStats;                         // Attach AnalysisStats to every result
+
+    /**
+     * Constructor with the default settings.
+     */
+    public BeamAnalysisEngine() {
+        this(new AnalysisSettings());
+    }
+
+    /**
+     * Constructor that fixes the settings of the engine. The settings are
+     * copied, so later changes to them do not affect the engine.
+     *
+     * @param settings AnalysisSettings
+     */
+    public BeamAnalysisEngine(AnalysisSettings settings) {
+        this.integrationMethod = settings.getIntegrationMethod();
+        this.integrationTolerance = settings.getIntegrationTolerance();
+        this.solverTolerance = settings.getSolverTolerance();
+        this.maxIterations = settings.getMaxIterations();
+        this.collectStats = settings.isCollectStats();
+    }
+
+    // = = = = = = = = = = = = = = = = = = = = = =
+    //
+    // Getters
+    //
+    // = = = = = = = = = = = = = = = = = = = = = =
+
+    /**
+     * Settings of this engine.
+     *
+     * @return A copy of the settings.
+     */
+    public AnalysisSettings getSettings() {
+        AnalysisSettings settings = new AnalysisSettings();
+        settings.setIntegrationMethod(this.integrationMethod);
+        settings.setIntegrationTolerance(this.integrationTolerance);
+        settings.setSolverTolerance(this.solverTolerance);
+        settings.setMaxIterations(this.maxIterations);
+        settings.setCollectStats(this.collectStats);
+        return settings;
+    }
+
+    // = = = = = = = = = = = = = = = = = = = = = =
+    //
+    // Methods
+    //
+    // = = = = = = = = = = = = = = = = = = = = = =
+
+    /**
+     * Runs one of the analyses on prepared geometry.
+     *
+     * @param type        Analysis to run.
+     * @param beamSection Beam section to be analyzed.
+     * @param section     Prepared geometry of the beam section.
+     * @param sd          Stress distribution used by the balanced and capacity analyses.
+     * @return BeamAnalysisResult of the analysis.
+     */
+    public BeamAnalysisResult analyze(AnalysisType type,
+                                      BeamSection beamSection,
+                                      PreparedSection section,
+                                      StressDistribution sd) {
+        return analyze(type, beamSection, section, sd, null);
+    }
+
+    /**
+     * Runs one of the analyses on prepared geometry under a monitor that can
+     * cancel it, bound it by a deadline and receive its progress.
+     *
+     * @param type        Analysis to run.
+     * @param beamSection Beam section to be analyzed.
+     * @param section     Prepared geometry of the beam section.
+     * @param sd          Stress distribution used by the balanced and capacity analyses.
+     * @param monitor     AnalysisMonitor, or null for none.
+     * @return BeamAnalysisResult of the analysis.
+     * @throws AnalysisCancelledException if the monitor was cancelled or its deadline passed.
+     */
+    public BeamAnalysisResult analyze(AnalysisType type,
+                                      BeamSection beamSection,
+                                      PreparedSection section,
+                                      StressDistribution sd,
+                                      AnalysisMonitor monitor) {
+        if (monitor != null) {
+            monitor.checkpoint(0);
+        }
+        switch (type) {
+            case UNCRACKED:
+                return uncracked(beamSection, section, monitor);
+            case BALANCED:
+                return balanced(beamSection, section, sd, monitor);
+            default:
+                return capacity(beamSection, section, sd, monitor);
+        }
+    }
+
+    /**
+     * Analyze the beam with the un-cracked section right before cracking.
+     *
+     * @param beamSection Beam section to be analyzed.
+     * @return BeamAnalysisResult of the un-cracked section.
+     */
+    public BeamAnalysisResult uncrackedAnalysis(BeamSection beamSection) {
+        return uncrackedAnalysis(beamSection, new PreparedSection(beamSection.getSection()));
+    }
+
+    /**
+     * Analyze the beam with the un-cracked section right before cracking,
+     * using geometry that has already been prepared.
+     *
+     * @param beamSection     Beam section to be analyzed.
+     * @param sectionGeometry Prepared geometry of the beam section.
+     * @return BeamAnalysisResult of the un-cracked section.
+     */
+    public BeamAnalysisResult uncrackedAnalysis(BeamSection beamSection, PreparedSection sectionGeometry) {
+        return uncracked(beamSection, sectionGeometry, null);
+    }
+
+    private BeamAnalysisResult uncracked(BeamSection beamSection,
+                                         PreparedSection sectionGeometry,
+                                         AnalysisMonitor monitor) {
+        BeamAnalysisResult analysis = new BeamAnalysisResult();
+        AnalysisStats stats = this.collectStats ? new AnalysisStats() : null;
+        long start = stats != null ? System.nanoTime() : 0;
+        AnalysisEvent event = new AnalysisEvent();
+        event.begin();
+
+        double fr = beamSection.getFr();                                    // Modulus of rupture
+        double Ec = beamSection.getEc();                                    // Concrete secant modulus
+        double h = sectionGeometry.getHeight();
+        double Ac = sectionGeometry.getArea();                              // Area of concrete alone
+        double yc = sectionGeometry.getCentroid();                          // Centroid from extreme compression fiber.
+        double d = beamSection.getEffectiveDepth();
+        double dPrime = beamSection.getSteelCompression().getdPrime(beamSection.getUnit());
+        double fy = beamSection.getFy();
+
+        SteelTension steelTension = beamSection.getSteelTension();
+        SteelCompression steelCompression = beamSection.getSteelCompression();
+        double As = steelTension.getTotalArea(beamSection.getUnit());                  // Get the steel area in tension
+        double AsPrime = steelCompression.getTotalArea(beamSection.getUnit());         // Get the steel area in compression
+        double ⲉo = beamSection.getConcreteStrainIndex();                     // ⲉo
+
+        double At = 0;                                                        // Total area of section (Transformed)
+        double n;                                                         // Modular ratio
+
+        // Calculate total area including steel transformed
+        n = beamSection.getModularRatio();
+        At += Ac;
+        At += (n - 1) * As;
+        At += (n - 1) * AsPrime;
+        // Calculate moments of areas
+        double Ma = 0;
+        Ma += (n - 1) * As * d;
+        Ma += (n - 1) * AsPrime * dPrime;
+        Ma += Ac * yc;
+
+        double kd;                                                        // Neutral axis to extreme compression fiber.
+        kd = Ma / At;
+        double highestElev = sectionGeometry.getHighestElevation();
+        double ⲉc = (fr / Ec) / (h - kd) * kd;                                // Strain in concrete compression
+        double fc = ⲉc * Ec;                                                  // Concrete stress
+        double fs = (fr * BeamContants.ES * (d - kd)) / (Ec * (h - kd));
+        double fsPrime = (fr * BeamContants.ES * (kd - dPrime)) / (Ec * (h - kd));
+        double Cc, Cs, Tc, Ts;                                                // Resultant forces
+        double ycc, yct;                                                      // Location of Cc and Tc
+        double integrationError;
+        double yNeutral = highestElev - kd;
+        SectionWidthProfile profile = sectionGeometry.getWidthProfile();
+        StressResultant compression, tension;
+        AnalysisPhaseEvent phase = new AnalysisPhaseEvent();
+        phase.begin();
+        if (this.integrationMethod == IntegrationMethod.STRIP
+                || this.integrationMethod == IntegrationMethod.PARALLEL_STRIP) {
+            compression = stripResultantLinear(profile, yNeutral, kd, fc, stats, monitor, 0, 0.45);
+            tension = stripResultantLinear(profile, yNeutral, kd - h, fr, stats, monitor, 0.45, 0.9);
+        } else if (this.integrationMethod == IntegrationMethod.ADAPTIVE) {
+            compression = SectionIntegrator.adaptiveLinearStress(sectionGeometry, yNeutral, highestElev, fc,
+                    this.integrationTolerance, stats);
+            tension = SectionIntegrator.adaptiveLinearStress(sectionGeometry, yNeutral, highestElev - h, fr,
+                    this.integrationTolerance, stats);
+        } else {
+            // Both stress solids are linear, integrate them exactly.
+            compression = SectionIntegrator.linearStress(sectionGeometry, yNeutral, highestElev, fc, stats);
+            tension = SectionIntegrator.linearStress(sectionGeometry, yNeutral, highestElev - h, fr, stats);
+        }
+        phase.finish(AnalysisType.UNCRACKED, AnalysisPhaseEvent.STRESS_INTEGRATION, null, sectionGeometry, 0);
+        if (monitor != null) {
+            monitor.checkpoint(0.9);
+        }
+        if (stats != null) {
+            long now = System.nanoTime();
+            stats.addIntegrationNanos(now - start);
+            start = now;
+        }
+        integrationError = Math.max(compression.getRelativeError(), tension.getRelativeError());
+        Cc = compression.getForce();
+        ycc = compression.depthBelow(highestElev);
+        Tc = tension.getForce();
+        yct = tension.heightAbove(highestElev - h);
+
+        Cs = AsPrime * fsPrime;                                               // Compression force on steel
+        Ts = As * fs;                                                         // Tensile force at steel
+
+        double yCompression = (Cc * ycc + Cs * dPrime) / (Cc + Cs);             // Location of resultant of both Cc and Cs
+
+        double Mcr = Ts * (d - yCompression) + Tc * (h - yCompression - yct);
+
+        // Calculate minimum steel using Whitney, solving for the block height a
+        // where 0.85 fc' A(a) (d - yTop(a)) = Mcr. A (d - yTop) = A d - Q with Q
+        // the first moment about the top.
+        double fcWhitney = 0.85 * beamSection.getFcPrime();
+        phase = new AnalysisPhaseEvent();
+        phase.begin();
+        DoubleUnaryOperator momentDeficit = aTrial -> {
+            if (monitor != null) {
+                monitor.checkpoint();
+            }
+            double yA = highestElev - aTrial;
+            return fcWhitney * (profile.areaAbove(yA) * d - profile.momentAbove(yA)) - Mcr;
+        };
+        RootResult solution = RootFinder.brent(momentDeficit,
+                0,
+                Math.min(d, h),
+                this.solverTolerance * d,
+                this.maxIterations);
+        double yA = highestElev - solution.getRoot();
+        double yTop = profile.momentAbove(yA) / profile.areaAbove(yA);
+        double Asmin = Mcr / (fy * (d - yTop));
+        phase.finish(AnalysisType.UNCRACKED, AnalysisPhaseEvent.ASMIN_SEARCH, null, sectionGeometry,
+                solution.getIterations());
+        if (stats != null) {
+            stats.addAsminSearchNanos(System.nanoTime() - start);
+            stats.addSolverIterations(solution.getIterations());
+            stats.setResidual(solution.getResidual());
+        }
+
+        double curvature = ⲉc / kd;
+
+        analysis.setMomentC(Mcr);
+        analysis.setCurvatureC(curvature);
+        analysis.setKd(kd);
+        analysis.setIntegrationError(integrationError);
+        analysis.setIterations(solution.getIterations());
+        analysis.setConverged(solution.isConverged());
+        analysis.setResidual(solution.getResidual());
+        analysis.setCrackingMoment(Mcr);
+        analysis.setMinimumSteelTensionArea(Asmin);
+        analysis.setStats(stats);
+        if (monitor != null) {
+            monitor.checkpoint(1);
+        }
+        event.finish(AnalysisType.UNCRACKED, null, sectionGeometry, solution.getIterations());
+
+        return analysis;
+    }
+
+    // TODO: 18/09/2018 concrete yield analysis
+
+    /**
+     * Analyze the capacity of beam with given section and reinforcements.
+     *
+     * @param beamSection Beam section to be analyzed.
+     * @param sd          Stress distribution type.
+     * @return BeamAnalysisResult
+     */
+    public BeamAnalysisResult beamCapacityAnalysis(BeamSection beamSection, StressDistribution sd) {
+        return beamCapacityAnalysis(beamSection, new PreparedSection(beamSection.getSection()), sd);
+    }
+
+    /**
+     * Analyze the capacity of beam with given reinforcements, using section
+     * geometry that has already been prepared.
+     *
+     * @param beamSection Beam section to be analyzed.
+     * @param section     Prepared geometry of the beam section.
+     * @param sd          Stress distribution type.
+     * @return BeamAnalysisResult
+     */
+    public BeamAnalysisResult beamCapacityAnalysis(BeamSection beamSection,
+                                                   PreparedSection section,
+                                                   StressDistribution sd) {
+        return capacity(beamSection, section, sd, null);
+    }
+
+    private BeamAnalysisResult capacity(BeamSection beamSection,
+                                        PreparedSection section,
+                                        StressDistribution sd,
+                                        AnalysisMonitor monitor) {
+        BeamAnalysisResult analysis = new BeamAnalysisResult();
+        AnalysisStats stats = this.collectStats ? new AnalysisStats() : null;
+        long start = stats != null ? System.nanoTime() : 0;
+        AnalysisEvent event = new AnalysisEvent();
+        event.begin();
+
+        double ⲉcu = BeamContants.MAX_CONCRETE_STRAIN;
+        double Es = BeamContants.ES;
+        double d = beamSection.getEffectiveDepth();
+        double dPrime = beamSection.getSteelCompression().getdPrime(Unit.METRIC);
+        double fs = 0,
+                fy = beamSection.getFy(),
+                As = beamSection.getSteelTension().getTotalArea(Unit.METRIC),
+                AsPrime = beamSection.getSteelCompression().getTotalArea(Unit.METRIC),
+                fsPrime = fy,
+                Cc = 0,
+                Cs = 0,
+                fcPrime = beamSection.getFcPrime(),
+                fc = 0.85 * fcPrime,
+                kdY = 0,
+                compressionArea;
+
+        double moment;
+        double integrationError = 0;
+        int iterations = 0;
+        boolean converged;
+        double residual;
+        double kd = 0.1;
+        double highestElev = section.getHighestElevation();
+        AnalysisPhaseEvent phase = new AnalysisPhaseEvent();
+        phase.begin();
+
+        if (sd == StressDistribution.PARABOLIC) {
+            // Net axial force and its analytic slope as functions of kd
+            RootFinder.Differentiable netForce = kdTrial -> {
+                if (monitor != null) {
+                    monitor.checkpoint();
+                }
+                double CcTrial = compressionSolidVolumeParabolic(section, fcPrime, kdTrial, ⲉcu, highestElev, stats);
+                double dCc = SectionIntegrator.parabolicStressTangent(section,
+                        highestElev - kdTrial, highestElev, fcPrime, ⲉcu, stats);
+
+                double fsTrial = ⲉcu * Es * (d - kdTrial) / kdTrial;
+                double dfs = -ⲉcu * Es * d / (kdTrial * kdTrial);
+                if (fsTrial > fy) {
+                    fsTrial = fy;
+                    dfs = 0;
+                }
+                double fsPrimeTrial = compressionSteelStress(kdTrial, ⲉcu, dPrime, fy);
+                double dfsPrime = Math.abs(fsPrimeTrial) < fy ? ⲉcu * Es * dPrime / (kdTrial * kdTrial) : 0;
+                return new double[]{
+                        CcTrial + AsPrime * fsPrimeTrial - As * fsTrial,
+                        dCc + AsPrime * dfsPrime - As * dfs
+                };
+            };
+
+            RootResult solution = RootFinder.safeguardedNewton(netForce,
+                    BRACKET_MARGIN * d,
+                    d * (1 - BRACKET_MARGIN),
+                    0.5 * d,
+                    this.solverTolerance * d,
+                    this.maxIterations);
+            iterations = solution.getIterations();
+            converged = solution.isConverged();
+            residual = solution.getResidual();
+            phase.finish(AnalysisType.CAPACITY, AnalysisPhaseEvent.EQUILIBRIUM_SOLVE, sd, section, iterations);
+            if (monitor != null) {
+                monitor.checkpoint(0.9);
+            }
+            if (stats != null) {
+                long now = System.nanoTime();
+                stats.addKdSearchNanos(now - start);
+                stats.setResidual(residual);
+                start = now;
+            }
+            phase = new AnalysisPhaseEvent();
+            phase.begin();
+
+            kd = solution.getRoot();
+            fs = ⲉcu * Es * (d - kd) / kd;
+            fs = calculateFs(fs, fy);
+            fsPrime = compressionSteelStress(kd, ⲉcu, dPrime, fy);
+            Cs = AsPrime * fsPrime;
+
+            StressResultant compression = compressionResultantParabolic(section, fcPrime, kd, ⲉcu, highestElev, stats);
+            double yBar = compression.depthBelow(highestElev);               // Centroid of compression solid from top
+            integrationError = compression.getRelativeError();
+            Cc = compression.getForce();
+            phase.finish(AnalysisType.CAPACITY, AnalysisPhaseEvent.CENTROID_INTEGRATION, sd, section, 0);
+            if (stats != null) {
+                stats.addIntegrationNanos(System.nanoTime() - start);
+            }
+
+            moment = Cc * (d - yBar) + Cs * (d - dPrime);
+
+        } else {
+            double beta = calculateBeta(fcPrime);
+
+            // Net axial force as a function of the compression block height
+            DoubleUnaryOperator netForce = aTrial -> {
+                if (monitor != null) {
+                    monitor.checkpoint();
+                }
+                double kdTrial = aTrial / beta;
+                double fsTrial = calculateFs(ⲉcu * Es * (d - kdTrial) / kdTrial, fy);
+                double fsPrimeTrial = compressionSteelStress(kdTrial, ⲉcu, dPrime, fy);
+                return fc * section.areaAboveAxis(highestElev - aTrial) + AsPrime * fsPrimeTrial - As * fsTrial;
+            };
+
+            // With both steels yielding, equilibrium fixes the block area and the
+            // area table gives its height directly. Keep it if the steels do yield.
+            double a = highestElev - section.getWidthProfile().elevationForAreaAbove((As - AsPrime) * fy / fc);
+            residual = Double.NaN;
+            if (a > BRACKET_MARGIN * d && a < beta * d * (1 - BRACKET_MARGIN)) {
+                residual = netForce.applyAsDouble(a);
+            }
+            converged = Math.abs(residual) <= this.solverTolerance * As * fy;
+            if (!converged) {
+                // The block lies between the top fiber and the depth where the steel strain vanishes
+                RootResult solution = RootFinder.brent(netForce,
+                        BRACKET_MARGIN * d,
+                        beta * d * (1 - BRACKET_MARGIN),
+                        this.solverTolerance * d,
+                        this.maxIterations);
+                iterations = solution.getIterations();
+                residual = solution.getResidual();
+                converged = solution.isConverged();
+                a = solution.getRoot();             // Compression block height
+            }
+            phase.finish(AnalysisType.CAPACITY, AnalysisPhaseEvent.EQUILIBRIUM_SOLVE, sd, section, iterations);
+            if (monitor != null) {
+                monitor.checkpoint(0.9);
+            }
+            if (stats != null) {
+                long now = System.nanoTime();
+                stats.addKdSearchNanos(now - start);
+                stats.setResidual(residual);
+                start = now;
+            }
+            phase = new AnalysisPhaseEvent();
+            phase.begin();
+
+            kd = a / beta;
+            fs = ⲉcu * Es * (d - kd) / kd;
+            fs = calculateFs(fs, fy);
+
+            kdY = highestElev - a;
+            compressionArea = section.areaAboveAxis(kdY);
+
+            Cc = fc * compressionArea;
+
+            fsPrime = compressionSteelStress(kd, ⲉcu, dPrime, fy);
+
+            Cs = AsPrime * fsPrime;
+            double compressionCentroid;
+            compressionCentroid = section.centroidAboveAxis(kdY);
+            moment = Cc * (d - compressionCentroid) + Cs * (d - dPrime);
+            phase.finish(AnalysisType.CAPACITY, AnalysisPhaseEvent.CENTROID_INTEGRATION, sd, section, 0);
+            if (stats != null) {
+                stats.addIntegrationNanos(System.nanoTime() - start);
+            }
+        }
+
+        analysis.setMomentC(moment);
+        analysis.setKd(kd);
+        analysis.setCurvatureC(ⲉcu / kd);
+        analysis.setIntegrationError(integrationError);
+        analysis.setIterations(iterations);
+        analysis.setConverged(converged);
+        analysis.setResidual(residual);
+        if (stats != null) {
+            stats.addSolverIterations(iterations);
+        }
+        analysis.setStats(stats);
+        if (monitor != null) {
+            monitor.checkpoint(1);
+        }
+        event.finish(AnalysisType.CAPACITY, sd, section, iterations);
+
+        return analysis;
+    }
+
+    /**
+     * Analysis for balanced steel design
+     *
+     * @param beamSection Beam section to be analyzed.
+     * @param sd          Stress distribution block
+     * @return analysis
+     */
+    public BeamAnalysisResult balancedAnalysis(BeamSection beamSection, StressDistribution sd) {
+        return balancedAnalysis(beamSection, new PreparedSection(beamSection.getSection()), sd);
+    }
+
+    /**
+     * Analysis for balanced steel design, using section geometry that has
+     * already been prepared.
+     *
+     * @param beamSection Beam section to be analyzed.
+     * @param section     Prepared geometry of the beam section.
+     * @param sd          Stress distribution block
+     * @return analysis
+     */
+    public BeamAnalysisResult balancedAnalysis(BeamSection beamSection,
+                                               PreparedSection section,
+                                               StressDistribution sd) {
+        return balanced(beamSection, section, sd, null);
+    }
+
+    private BeamAnalysisResult balanced(BeamSection beamSection,
+                                        PreparedSection section,
+                                        StressDistribution sd,
+                                        AnalysisMonitor monitor) {
+        BeamAnalysisResult result = new BeamAnalysisResult();
+        AnalysisStats stats = this.collectStats ? new AnalysisStats() : null;
+        long start = stats != null ? System.nanoTime() : 0;
+        AnalysisEvent event = new AnalysisEvent();
+        event.begin();
+
+        double ⲉcu = BeamContants.MAX_CONCRETE_STRAIN;
+        double Es = BeamContants.ES;
+        double d = beamSection.getEffectiveDepth();
+        double dPrime = beamSection.getSteelCompression().getdPrime(Unit.METRIC);
+        double fy = beamSection.getFy(),
+                AsPrime = beamSection.getSteelCompression().getTotalArea(Unit.METRIC),
+                fsPrime,
+                Cc,
+                Cs,
+                fcPrime = beamSection.getFcPrime(),
+                fc = 0.85 * fcPrime,
+                kdY,
+                compressionArea;
+        double kd;
+        double Asb;
+        double highestElev = section.getHighestElevation();
+
+        kd = ⲉcu * Es * d / (fy + ⲉcu * Es);
+
+        double yBar;                                                    // Centroid of compression solid from top
+        double integrationError = 0;
+        AnalysisPhaseEvent phase = new AnalysisPhaseEvent();
+        phase.begin();
+        if (sd == StressDistribution.PARABOLIC) {
+            StressResultant compression = compressionResultantParabolic(section, fcPrime, kd, ⲉcu, highestElev, stats);
+            Cc = compression.getForce();
+            yBar = compression.depthBelow(highestElev);
+            integrationError = compression.getRelativeError();
+            fsPrime = compressionSteelStress(kd, ⲉcu, dPrime, fy);
+            Cs = AsPrime * fsPrime;
+        } else {
+            // Whitney stress block
+            double beta = calculateBeta(fcPrime);
+            double a;
+            a = beta * kd;
+            kdY = highestElev - a;
+            compressionArea = section.areaAboveAxis(kdY);
+            Cc = fc * compressionArea;
+            yBar = section.centroidAboveAxis(kdY);
+            fsPrime = compressionSteelStress(kd, ⲉcu, dPrime, fy);
+            Cs = AsPrime * fsPrime;
+        }
+        Asb = (Cc + Cs) / fy;
+        phase.finish(AnalysisType.BALANCED, AnalysisPhaseEvent.CENTROID_INTEGRATION, sd, section, 0);
+        if (stats != null) {
+            stats.addIntegrationNanos(System.nanoTime() - start);
+        }
+
+        double momentBalance = Cc * (d - yBar) + Cs * (d - dPrime);
+
+        result.setCurvatureC(ⲉcu / kd);
+        result.setKd(kd);
+        result.setMomentC(momentBalance);
+        result.setIntegrationError(integrationError);
+        result.setBalancedSteelTension(Asb);
+        result.setConverged(true);                      // Closed form, no solver
+        result.setStats(stats);
+        if (monitor != null) {
+            monitor.checkpoint(1);
+        }
+        event.finish(AnalysisType.BALANCED, sd, section, 0);
+
+        return result;
+    }
+
+    /**
+     * Moment-curvature curve of the cracked section, from zero up to the
+     * maximum concrete strain.
+     *
+     * @param beamSection Beam section to be analyzed.
+     * @param steps       Number of strain steps, at least 1.
+     * @return MomentCurvatureCurve of steps + 1 points
+     */
+    public MomentCurvatureCurve momentCurvature(BeamSection beamSection, int steps) {
+        return momentCurvature(beamSection, new PreparedSection(beamSection.getSection()), steps);
+    }
+
+    /**
+     * Moment-curvature curve of the cracked section, using geometry that has
+     * already been prepared.
+     *
+     * The extreme fiber strain is stepped evenly from zero to
+     * MAX_CONCRETE_STRAIN. At every step the neutral axis is found from the
+     * equilibrium of the parabolic concrete stress, integrated with the
+     * engine's method, and of elastic-perfectly plastic steel, ignoring the
+     * concrete in tension. Newton's method starts from the neutral axis of
+     * the previous step, so each point takes a few iterations and the cost
+     * grows linearly with the number of steps.
+     *
+     * @param beamSection Beam section to be analyzed.
+     * @param section     Prepared geometry of the beam section.
+     * @param steps       Number of strain steps, at least 1.
+     * @return MomentCurvatureCurve of steps + 1 points
+     */
+    public MomentCurvatureCurve momentCurvature(BeamSection beamSection, PreparedSection section, int steps) {
+        if (steps < 1) {
+            throw new IllegalArgumentException("A moment-curvature curve needs at least one step.");
+        }
+        double Es = BeamContants.ES;
+        double d = beamSection.getEffectiveDepth();
+        double dPrime = beamSection.getSteelCompression().getdPrime(Unit.METRIC);
+        double fy = beamSection.getFy();
+        double As = beamSection.getSteelTension().getTotalArea(Unit.METRIC);
+        double AsPrime = beamSection.getSteelCompression().getTotalArea(Unit.METRIC);
+        double fcPrime = beamSection.getFcPrime();
+        double highestElev = section.getHighestElevation();
+
+        double[] strain = new double[steps + 1];
+        double[] curvature = new double[steps + 1];
+        double[] moment = new double[steps + 1];
+        double[] kds = new double[steps + 1];
+        double[] steelStress = new double[steps + 1];
+        int iterations = 0;
+        boolean converged = true;
+        double kd = 0.5 * d;                                            // Starting point of the first step
+
+        for (int i = 1; i <= steps; i++) {
+            double ⲉc = BeamContants.MAX_CONCRETE_STRAIN * i / steps;
+
+            // Net axial force and its analytic slope as functions of kd
+            RootFinder.Differentiable netForce = kdTrial -> {
+                double CcTrial = compressionSolidVolumeParabolic(section, fcPrime, kdTrial, ⲉc, highestElev, null);
+                double dCc = SectionIntegrator.parabolicStressTangent(section,
+                        highestElev - kdTrial, highestElev, fcPrime, ⲉc, null);
+
+                double fsTrial = ⲉc * Es * (d - kdTrial) / kdTrial;
+                double dfs = -ⲉc * Es * d / (kdTrial * kdTrial);
+                if (fsTrial > fy) {
+                    fsTrial = fy;
+                    dfs = 0;
+                }
+                double fsPrimeTrial = compressionSteelStress(kdTrial, ⲉc, dPrime, fy);
+                double dfsPrime = Math.abs(fsPrimeTrial) < fy ? ⲉc * Es * dPrime / (kdTrial * kdTrial) : 0;
+                return new double[]{
+                        CcTrial + AsPrime * fsPrimeTrial - As * fsTrial,
+                        dCc + AsPrime * dfsPrime - As * dfs
+                };
+            };
+
+            RootResult solution = RootFinder.safeguardedNewton(netForce,
+                    BRACKET_MARGIN * d,
+                    d * (1 - BRACKET_MARGIN),
+                    kd,
+                    this.solverTolerance * d,
+                    this.maxIterations);
+            iterations += solution.getIterations();
+            converged &= solution.isConverged();
+            kd = solution.getRoot();
+
+            double fs = calculateFs(ⲉc * Es * (d - kd) / kd, fy);
+            double fsPrime = compressionSteelStress(kd, ⲉc, dPrime, fy);
+            StressResultant compression = compressionResultantParabolic(section, fcPrime, kd, ⲉc, highestElev, null);
+            double yBar = compression.depthBelow(highestElev);           // Centroid of compression solid from top
+
+            strain[i] = ⲉc;
+            curvature[i] = ⲉc / kd;
+            moment[i] = compression.getForce() * (d - yBar) + AsPrime * fsPrime * (d - dPrime);
+            kds[i] = kd;
+            steelStress[i] = fs;
+        }
+        kds[0] = kds[1];
+
+        return new MomentCurvatureCurve(strain, curvature, moment, kds, steelStress, iterations, converged);
+    }
+
+    /**
+     * Whitney stress block beta calculator.
+     *
+     * @param fcPrime Concrete compressive strength.
+     * @return beta
+     */
+    private double calculateBeta(double fcPrime) {
+        double beta = 0.85;
+
+        if (fcPrime >= BeamContants.COMPRESSIVE_STRENGTH_THRESHOLD) {
+            beta = 0.85 - 0.05 / 7 * (fcPrime - BeamContants.COMPRESSIVE_STRENGTH_THRESHOLD);
+        }
+
+        // Limit beta to 0.65
+        if (beta < 0.65) {
+            beta = 0.65;
+        }
+
+        return beta;
+    }
+
+    /**
+     * Concrete compression solid magnitude.
+     *
+     * @param section     prepared section geometry
+     * @param fcPrime     concrete compressive strength
+     * @param kd          trial or value of height of compression block
+     * @param ⲉcu         maximum concrete strain
+     * @param highestElev top elevation of beam section
+     * @param stats       counters to update, or null
+     * @return Cc
+     */
+    private double compressionSolidVolumeParabolic(PreparedSection section,
+                                                   double fcPrime,
+                                                   double kd,
+                                                   double ⲉcu,
+                                                   double highestElev,
+                                                   AnalysisStats stats) {
+        return compressionResultantParabolic(section, fcPrime, kd, ⲉcu, highestElev, stats).getForce();
+    }
+
+    /**
+     * Concrete compression solid magnitude and location.
+     *
+     * @param section     prepared section geometry
+     * @param fcPrime     concrete compressive strength
+     * @param kd          trial or value of height of compression block
+     * @param ⲉcu         maximum concrete strain
+     * @param highestElev top elevation of beam section
+     * @param stats       counters to update, or null
+     * @return StressResultant of the compression solid
+     */
+    private StressResultant compressionResultantParabolic(PreparedSection section,
+                                                          double fcPrime,
+                                                          double kd,
+                                                          double ⲉcu,
+                                                          double highestElev,
+                                                          AnalysisStats stats) {
+        if (this.integrationMethod == IntegrationMethod.EXACT) {
+            return SectionIntegrator.parabolicStress(section,
+                    highestElev - kd, highestElev, fcPrime, ⲉcu, stats);
+        } else if (this.integrationMethod == IntegrationMethod.ADAPTIVE) {
+            return SectionIntegrator.adaptiveParabolicStress(section,
+                    highestElev - kd, highestElev, fcPrime, ⲉcu, this.integrationTolerance, stats);
+        }
+
+        return stripResultantParabolic(section.getWidthProfile(), fcPrime, kd, ⲉcu, highestElev, stats);
+    }
+
+    /**
+     * Strip summation of the parabolic compression solid. Force and moment
+     * are accumulated in the same pass, with the invariants hoisted out of
+     * the loop so nothing is allocated per strip.
+     *
+     * @param profile     width profile of the section
+     * @param fcPrime     concrete compressive strength
+     * @param kd          trial or value of height of compression block
+     * @param ⲉcu         maximum concrete strain
+     * @param highestElev top elevation of beam section
+     * @param stats       counters to update, or null
+     * @return StressResultant of the compression solid
+     */
+    private StressResultant stripResultantParabolic(SectionWidthProfile profile,
+                                                    double fcPrime,
+                                                    double kd,
+                                                    double ⲉcu,
+                                                    double highestElev,
+                                                    AnalysisStats stats) {
+        int iterator = BeamContants.COMPRESSION_SOLID_DY_ITERATION;
+        double dy = kd / iterator;                                  // Strip height
+        double yNeutral = highestElev - kd;
+        double ⲉco = 2 * 0.85 * fcPrime / (4700 * Math.sqrt(fcPrime));
+        double fcMax = 0.85 * fcPrime;
+        double rStep = ⲉcu / iterator / ⲉco;                        // Strain ratio ⲉc/ⲉco per strip
+
+        StripIntegrator.Kernel kernel = (first, last, sums) -> {
+            double r, fc, y, dF, Cc = sums[0], My = sums[1];
+            for (int i = last; i >= first; i--) {
+                r = i * rStep;
+                fc = r < 1 ? fcMax * (2 * r - r * r) : fcMax;
+                y = i * dy;
+                dF = fc * profile.width(yNeutral + y) * dy;
+                Cc += dF;
+                My += dF * y;
+            }
+            sums[0] = Cc;
+            sums[1] = My;
+        };
+        double[] sums = this.integrationMethod == IntegrationMethod.PARALLEL_STRIP
+                ? StripIntegrator.parallel(iterator, kernel, null)
+                : StripIntegrator.sequential(iterator, kernel, null, 0, 0);
+        if (stats != null) {
+            stats.addWidthEvaluations(iterator);
+        }
+        return new StressResultant(sums[0], yNeutral + sums[1] / sums[0], Double.NaN);
+    }
+
+    /**
+     * Strip summation of a stress growing linearly from zero at the neutral
+     * axis to a peak at an extreme fiber. Force and moment are accumulated
+     * in the same pass without allocating.
+     *
+     * @param profile    width profile of the section
+     * @param yNeutral   elevation of the neutral axis
+     * @param z          distance from the neutral axis to the extreme fiber,
+     *                   negative for the fiber below the axis
+     * @param peakStress stress at the extreme fiber
+     * @param stats      counters to update, or null
+     * @param monitor    monitor checked every StripIntegrator.CHUNK_STRIPS strips, or null
+     * @param progressLo fraction of the analysis done before this integration
+     * @param progressHi fraction of the analysis done after this integration
+     * @return StressResultant of the stress solid
+     */
+    private StressResultant stripResultantLinear(SectionWidthProfile profile,
+                                                 double yNeutral,
+                                                 double z,
+                                                 double peakStress,
+                                                 AnalysisStats stats,
+                                                 AnalysisMonitor monitor,
+                                                 double progressLo,
+                                                 double progressHi) {
+        int iterator = BeamContants.UNCRACKED_STRIP_ITERATION;
+        double dy = z / iterator;                                   // Strip height, signed
+        double stripHeight = Math.abs(dy);
+        double stressStep = peakStress / iterator;                  // Stress increase per strip
+
+        StripIntegrator.Kernel kernel = (first, last, sums) -> {
+            double y, dF, force = sums[0], moment = sums[1];
+            for (int i = last; i >= first; i--) {
+                y = i * dy;
+                dF = i * stressStep * profile.width(yNeutral + y) * stripHeight;
+                force += dF;
+                moment += dF * y;
+            }
+            sums[0] = force;
+            sums[1] = moment;
+        };
+        double[] sums;
+        if (this.integrationMethod == IntegrationMethod.PARALLEL_STRIP) {
+            sums = StripIntegrator.parallel(iterator, kernel, monitor);
+            if (monitor != null) {
+                monitor.checkpoint(progressHi);
+            }
+        } else {
+            sums = StripIntegrator.sequential(iterator, kernel, monitor, progressLo, progressHi);
+        }
+        if (stats != null) {
+            stats.addWidthEvaluations(iterator);
+        }
+        return new StressResultant(sums[0], yNeutral + sums[1] / sums[0], Double.NaN);
+    }
+
+    /**
+     * Stress of the compression steel from strain compatibility: the strain
+     * varies linearly from ⲉc at the top fiber to zero at the neutral axis,
+     * and the steel is elastic-perfectly plastic in both directions.
+     *
+     * @param kd     Neutral axis depth
+     * @param ⲉc     Strain at the extreme compression fiber
+     * @param dPrime Depth of the compression steel
+     * @param fy     Steel yield strength
+     * @return fs', negative when the steel lies below the neutral axis
+     */
+    private double compressionSteelStress(double kd, double ⲉc, double dPrime, double fy) {
+        double fsPrime = ⲉc * BeamContants.ES * (kd - dPrime) / kd;
+        return Math.max(-fy, Math.min(fsPrime, fy));
+    }
+
+    /**
+     * Returns the appropriate value of fs to be used.
+     *
+     * @param fs Calculated fs
+     * @param fy Steel yield strength
+     * @return fs
+     */
+    private double calculateFs(double fs, double fy) {
+        if (fs > fy) {
+            return fy;
+        }
+        return fs;
+    }
+}
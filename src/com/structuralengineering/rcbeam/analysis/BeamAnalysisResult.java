@@ -4,6 +4,39 @@ public class BeamAnalysisResult {
     private double momentC;
     private double curvatureC;
     private double kd;
+    private double integrationError;            // Estimated relative error of the concrete integration
+    private int iterations;                     // Iterations of the equilibrium solver
+    private boolean converged;                  // True if the solver met its tolerance
+    private double residual;                    // Solver function value at the returned root
+    private double crackingMoment;              // Mcr in N-mm, from the uncracked analysis
+    private double minimumSteelTensionArea;     // Asmin in mm2, from the uncracked analysis
+    private double balancedSteelTension;        // Asb in mm2, from the balanced analysis
+    private AnalysisStats stats;                // Counters and timings, null unless collected
+
+    /**
+     * Empty constructor.
+     */
+    public BeamAnalysisResult() {
+    }
+
+    /**
+     * Copy constructor.
+     *
+     * @param other Result to copy.
+     */
+    public BeamAnalysisResult(BeamAnalysisResult other) {
+        this.momentC = other.momentC;
+        this.curvatureC = other.curvatureC;
+        this.kd = other.kd;
+        this.integrationError = other.integrationError;
+        this.iterations = other.iterations;
+        this.converged = other.converged;
+        this.residual = other.residual;
+        this.crackingMoment = other.crackingMoment;
+        this.minimumSteelTensionArea = other.minimumSteelTensionArea;
+        this.balancedSteelTension = other.balancedSteelTension;
+        this.stats = other.stats;
+    }
 
     /**
      * ******************************************
@@ -38,4 +71,115 @@ public class BeamAnalysisResult {
     public void setKd(double kd) {
         this.kd = kd;
     }
+
+    /**
+     * Estimated relative error of the concrete stress integration.
+     * Zero for exact integration, NaN when no estimate is available.
+     *
+     * @return integrationError
+     */
+    public double getIntegrationError() {
+        return integrationError;
+    }
+
+    public void setIntegrationError(double integrationError) {
+        this.integrationError = integrationError;
+    }
+
+    /**
+     * Number of iterations used to find equilibrium.
+     *
+     * @return iterations
+     */
+    public int getIterations() {
+        return iterations;
+    }
+
+    public void setIterations(int iterations) {
+        this.iterations = iterations;
+    }
+
+    /**
+     * Whether the equilibrium solver met its tolerance within the iteration
+     * limit and with the root bracketed. When false, the result holds the
+     * solver's last estimate and should not be trusted.
+     *
+     * @return converged
+     */
+    public boolean isConverged() {
+        return converged;
+    }
+
+    public void setConverged(boolean converged) {
+        this.converged = converged;
+    }
+
+    /**
+     * Value of the solved equation at the returned root: the net force for
+     * the capacity analysis, the moment deficit of the Asmin search for the
+     * uncracked analysis, 0 for the closed form balanced analysis.
+     *
+     * @return residual
+     */
+    public double getResidual() {
+        return residual;
+    }
+
+    public void setResidual(double residual) {
+        this.residual = residual;
+    }
+
+    /**
+     * Cracking moment in N-mm. Set by the uncracked analysis only.
+     *
+     * @return Mcr
+     */
+    public double getCrackingMoment() {
+        return crackingMoment;
+    }
+
+    public void setCrackingMoment(double crackingMoment) {
+        this.crackingMoment = crackingMoment;
+    }
+
+    /**
+     * Minimum tension steel area in mm2 for the cracking stage.
+     * Set by the uncracked analysis only.
+     *
+     * @return Asmin
+     */
+    public double getMinimumSteelTensionArea() {
+        return minimumSteelTensionArea;
+    }
+
+    public void setMinimumSteelTensionArea(double minimumSteelTensionArea) {
+        this.minimumSteelTensionArea = minimumSteelTensionArea;
+    }
+
+    /**
+     * Tension steel area in mm2 for a balanced design.
+     * Set by the balanced analysis only.
+     *
+     * @return Asb
+     */
+    public double getBalancedSteelTension() {
+        return balancedSteelTension;
+    }
+
+    public void setBalancedSteelTension(double balancedSteelTension) {
+        this.balancedSteelTension = balancedSteelTension;
+    }
+
+    /**
+     * Counters and timings of the analysis, see AnalysisSettings.setCollectStats.
+     *
+     * @return stats, or null if they were not collected
+     */
+    public AnalysisStats getStats() {
+        return stats;
+    }
+
+    public void setStats(AnalysisStats stats) {
+        this.stats = stats;
+    }
 }
@@ -0,0 +1,11 @@
+package com.structuralengineering.rcbeam.analysis;
+
+/**
+ * Method used to integrate the concrete stress over the beam section.
+ */
+public enum IntegrationMethod {
+    EXACT,          // Closed form integration over the polygon edges
+    ADAPTIVE,       // Adaptive Simpson integration to a relative tolerance
+    STRIP,          // Brute force strip summation, kept as a reference
+    PARALLEL_STRIP  // STRIP split into fork/join chunks, same result on any number of cores
+}
@@ -0,0 +1,89 @@
+package com.structuralengineering.rcbeam.analysis;
+
+/**
+ * Moment-curvature curve of a beam section, as parallel arrays.
+ *
+ * Point 0 is the unloaded section and point i of n steps has the extreme
+ * compression fiber strain i / n * MAX_CONCRETE_STRAIN. The arrays are
+ * shared, not copied, and must not be modified.
+ */
+public final class MomentCurvatureCurve {
+    private final double[] concreteStrain;              // Strain at the extreme compression fiber
+    private final double[] curvature;                   // Curvature in 1/mm
+    private final double[] moment;                      // Moment in N-mm
+    private final double[] kd;                          // Neutral axis depth in mm
+    private final double[] steelStress;                 // Stress of the tension steel in MPa
+    private final int iterations;                       // Equilibrium solver iterations of all points
+    private final boolean converged;                    // True if every point met the solver tolerance
+
+    /**
+     * Wraps computed curve arrays, all of the same length.
+     *
+     * @param concreteStrain Strain at the extreme compression fiber.
+     * @param curvature      Curvature in 1/mm.
+     * @param moment         Moment in N-mm.
+     * @param kd             Neutral axis depth in mm.
+     * @param steelStress    Stress of the tension steel in MPa.
+     * @param iterations     Equilibrium solver iterations of all points.
+     * @param converged      True if every point met the solver tolerance.
+     */
+    public MomentCurvatureCurve(double[] concreteStrain,
+                                double[] curvature,
+                                double[] moment,
+                                double[] kd,
+                                double[] steelStress,
+                                int iterations,
+                                boolean converged) {
+        this.concreteStrain = concreteStrain;
+        this.curvature = curvature;
+        this.moment = moment;
+        this.kd = kd;
+        this.steelStress = steelStress;
+        this.iterations = iterations;
+        this.converged = converged;
+    }
+
+    // = = = = = = = = = = = = = = = = = = = = = =
+    //
+    // Getters
+    //
+    // = = = = = = = = = = = = = = = = = = = = = =
+
+    public int getPointCount() {
+        return moment.length;
+    }
+
+    public double[] getConcreteStrain() {
+        return concreteStrain;
+    }
+
+    public double[] getCurvature() {
+        return curvature;
+    }
+
+    public double[] getMoment() {
+        return moment;
+    }
+
+    /**
+     * Neutral axis depth of every point. At point 0 it is the limit as the
+     * strain goes to zero, which is the depth of the first step.
+     *
+     * @return kd
+     */
+    public double[] getKd() {
+        return kd;
+    }
+
+    public double[] getSteelStress() {
+        return steelStress;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    public boolean isConverged() {
+        return converged;
+    }
+}
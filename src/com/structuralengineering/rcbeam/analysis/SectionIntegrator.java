@@ -0,0 +1,301 @@
+package com.structuralengineering.rcbeam.analysis;
+
+import com.structuralengineering.rcbeam.properties.PreparedSection;
+import com.structuralengineering.rcbeam.properties.SectionWidthProfile;
+import com.structuralengineering.rcbeam.utils.AdaptiveIntegrator;
+
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Exact integration of stress distributions over a beam section.
+ */
+public final class SectionIntegrator {
+    // 3-point Gauss-Legendre rule on [-1, 1], exact up to 5th degree polynomials
+    private static final double[] GAUSS_POINTS = {-Math.sqrt(0.6), 0, Math.sqrt(0.6)};
+    private static final double[] GAUSS_WEIGHTS = {5.0 / 9, 8.0 / 9, 5.0 / 9};
+
+    private SectionIntegrator() {
+    }
+
+    /**
+     * Resultant of a stress varying linearly from zero at one elevation to
+     * a peak value at another. Only the part of the section between the two
+     * elevations is stressed.
+     *
+     * @param section    Beam section geometry.
+     * @param yZero      Elevation of zero stress, usually the neutral axis.
+     * @param yPeak      Elevation of the peak stress, usually an extreme fiber.
+     * @param peakStress Stress at yPeak.
+     * @param stats      Counters to update, or null.
+     * @return StressResultant
+     */
+    public static StressResultant linearStress(PreparedSection section,
+                                               double yZero,
+                                               double yPeak,
+                                               double peakStress,
+                                               AnalysisStats stats) {
+        double yLo = Math.min(yZero, yPeak);
+        double yHi = Math.max(yZero, yPeak);
+        double[] moments = section.bandMoments(yLo, yHi, yZero);
+        if (stats != null) {
+            stats.addPolygonClips(section.getPackedPolygon().getRingCount());
+        }
+
+        // Stress is peakStress * (y - yZero) / (yPeak - yZero)
+        double k = peakStress / (yPeak - yZero);
+        double force = k * moments[1];
+        if (moments[1] == 0) {
+            return new StressResultant(0, yPeak);
+        }
+        return new StressResultant(force, yZero + moments[2] / moments[1]);
+    }
+
+    /**
+     * Resultant of the parabolic (Hognestad) compression stress block, with
+     * the extreme fiber at the maximum concrete strain.
+     *
+     * @param section  Beam section geometry.
+     * @param yNeutral Elevation of the neutral axis.
+     * @param yTop     Elevation of the extreme compression fiber.
+     * @param fcPrime  Concrete compressive strength.
+     * @param ⲉcu      Strain at the extreme compression fiber.
+     * @param stats    Counters to update, or null.
+     * @return StressResultant
+     */
+    public static StressResultant parabolicStress(PreparedSection section,
+                                                  double yNeutral,
+                                                  double yTop,
+                                                  double fcPrime,
+                                                  double ⲉcu,
+                                                  AnalysisStats stats) {
+        double ⲉco = 2 * 0.85 * fcPrime / (4700 * Math.sqrt(fcPrime));
+        double yPlateau = yNeutral + (yTop - yNeutral) * ⲉco / ⲉcu;
+        return gaussStress(section.getWidthProfile(), yNeutral, yTop, yPlateau,
+                hognestad(yNeutral, yTop, fcPrime, ⲉcu, ⲉco), stats);
+    }
+
+    /**
+     * Rate of change of the parabolic stress block force with respect to the
+     * neutral axis depth kd, with the extreme fiber strain held at ⲉcu.
+     *
+     * Differentiating under the integral leaves only the integral of the
+     * stress slope times the change of strain, ⲉcu * z / kd^2 at depth z
+     * below the top. The limit term at the neutral axis vanishes, since the
+     * strain and so the stress are zero there.
+     *
+     * @param section  Beam section geometry.
+     * @param yNeutral Elevation of the neutral axis.
+     * @param yTop     Elevation of the extreme compression fiber.
+     * @param fcPrime  Concrete compressive strength.
+     * @param ⲉcu      Strain at the extreme compression fiber.
+     * @param stats    Counters to update, or null.
+     * @return dCc / dkd
+     */
+    public static double parabolicStressTangent(PreparedSection section,
+                                                double yNeutral,
+                                                double yTop,
+                                                double fcPrime,
+                                                double ⲉcu,
+                                                AnalysisStats stats) {
+        double ⲉco = 2 * 0.85 * fcPrime / (4700 * Math.sqrt(fcPrime));
+        double kd = yTop - yNeutral;
+        double fcMax = 0.85 * fcPrime;
+        double yPlateau = yNeutral + kd * ⲉco / ⲉcu;
+        SectionWidthProfile profile = section.getWidthProfile();
+
+        DoubleUnaryOperator stressRate = y -> {
+            double ⲉcy = ⲉcu * (y - yNeutral) / kd;
+            if (ⲉcy < ⲉco) {
+                double slope = fcMax * (2 / ⲉco - 2 * ⲉcy / (ⲉco * ⲉco));
+                return slope * ⲉcu * (yTop - y) / (kd * kd);
+            }
+            return 0;
+        };
+        return gaussStress(profile, yNeutral, yTop, yPlateau, stressRate, stats).getForce();
+    }
+
+    /**
+     * Adaptive integration of a linear stress, see linearStress.
+     *
+     * @param section           Beam section geometry.
+     * @param yZero             Elevation of zero stress.
+     * @param yPeak             Elevation of the peak stress.
+     * @param peakStress        Stress at yPeak.
+     * @param relativeTolerance Relative tolerance on the force.
+     * @param stats             Counters to update, or null.
+     * @return StressResultant with its error estimate
+     */
+    public static StressResultant adaptiveLinearStress(PreparedSection section,
+                                                       double yZero,
+                                                       double yPeak,
+                                                       double peakStress,
+                                                       double relativeTolerance,
+                                                       AnalysisStats stats) {
+        double k = peakStress / (yPeak - yZero);
+        return adaptiveStress(section.getWidthProfile(),
+                Math.min(yZero, yPeak), Math.max(yZero, yPeak), Double.NaN,
+                y -> k * (y - yZero), relativeTolerance, stats);
+    }
+
+    /**
+     * Adaptive integration of the parabolic stress block, see parabolicStress.
+     *
+     * @param section           Beam section geometry.
+     * @param yNeutral          Elevation of the neutral axis.
+     * @param yTop              Elevation of the extreme compression fiber.
+     * @param fcPrime           Concrete compressive strength.
+     * @param ⲉcu               Strain at the extreme compression fiber.
+     * @param relativeTolerance Relative tolerance on the force.
+     * @param stats             Counters to update, or null.
+     * @return StressResultant with its error estimate
+     */
+    public static StressResultant adaptiveParabolicStress(PreparedSection section,
+                                                          double yNeutral,
+                                                          double yTop,
+                                                          double fcPrime,
+                                                          double ⲉcu,
+                                                          double relativeTolerance,
+                                                          AnalysisStats stats) {
+        double ⲉco = 2 * 0.85 * fcPrime / (4700 * Math.sqrt(fcPrime));
+        double yPlateau = yNeutral + (yTop - yNeutral) * ⲉco / ⲉcu;
+        return adaptiveStress(section.getWidthProfile(), yNeutral, yTop, yPlateau,
+                hognestad(yNeutral, yTop, fcPrime, ⲉcu, ⲉco), relativeTolerance, stats);
+    }
+
+    /**
+     * Hognestad stress as a function of elevation. The stress stays constant
+     * above the elevation where the strain reaches ⲉco.
+     */
+    private static DoubleUnaryOperator hognestad(double yNeutral,
+                                                 double yTop,
+                                                 double fcPrime,
+                                                 double ⲉcu,
+                                                 double ⲉco) {
+        double kd = yTop - yNeutral;
+        double fcMax = 0.85 * fcPrime;
+        return y -> {
+            double ⲉcy = ⲉcu * (y - yNeutral) / kd;
+            if (ⲉcy < ⲉco) {
+                double r = ⲉcy / ⲉco;
+                return fcMax * (2 * r - r * r);
+            }
+            return fcMax;
+        };
+    }
+
+    /**
+     * Adaptive integration of a stress over the section between two
+     * elevations. The range is split at the width breakpoints and at the
+     * kink of the stress function, as a coarse first pass could otherwise
+     * step over a hole or a flange, and each piece is refined to the
+     * tolerance.
+     */
+    private static StressResultant adaptiveStress(SectionWidthProfile profile,
+                                                  double yLo,
+                                                  double yHi,
+                                                  double yKink,
+                                                  DoubleUnaryOperator stress,
+                                                  double relativeTolerance,
+                                                  AnalysisStats stats) {
+        DoubleUnaryOperator integrand = y -> stress.applyAsDouble(y) * profile.width(y);
+        double force = 0, moment = 0, error = 0, evaluations = 0;
+        int count = profile.getBreakpointCount();
+        int k = 0;
+        while (k < count && profile.getElevation(k) <= yLo) {
+            k++;
+        }
+
+        double a = yLo, b;
+        double[] piece;
+        while (a < yHi) {
+            b = yHi;
+            if (k < count && profile.getElevation(k) < b) {
+                b = profile.getElevation(k);
+            }
+            if (yKink > a && yKink < b) {
+                b = yKink;
+            }
+
+            piece = AdaptiveIntegrator.integrateWithMoment(integrand, a, b, relativeTolerance);
+            force += piece[0];
+            moment += piece[1] + piece[0] * (a - yLo);
+            error += piece[2];
+            evaluations += piece[3];
+
+            if (k < count && profile.getElevation(k) <= b) {
+                k++;
+            }
+            a = b;
+        }
+
+        if (stats != null) {
+            stats.addWidthEvaluations((long) evaluations);
+        }
+        if (force == 0) {
+            return new StressResultant(0, yHi, error);
+        }
+        return new StressResultant(force, yLo + moment / force, error);
+    }
+
+    /**
+     * Gauss-Legendre integration of a stress over the section between two
+     * elevations. Every width breakpoint and the given kink of the stress
+     * function split the range, so each piece integrates a smooth polynomial.
+     *
+     * @param profile Width profile of the section.
+     * @param yLo     Lower elevation.
+     * @param yHi     Upper elevation.
+     * @param yKink   Elevation where the stress function changes form.
+     * @param stress  Stress as a function of elevation.
+     * @param stats   Counters to update, or null.
+     * @return StressResultant
+     */
+    static StressResultant gaussStress(SectionWidthProfile profile,
+                                       double yLo,
+                                       double yHi,
+                                       double yKink,
+                                       DoubleUnaryOperator stress,
+                                       AnalysisStats stats) {
+        double force = 0, moment = 0;
+        int pieces = 0;
+        int count = profile.getBreakpointCount();
+        int k = 0;
+        while (k < count && profile.getElevation(k) <= yLo) {
+            k++;
+        }
+
+        double a = yLo, b, half, mid, y, f;
+        while (a < yHi) {
+            b = yHi;
+            if (k < count && profile.getElevation(k) < b) {
+                b = profile.getElevation(k);
+            }
+            if (yKink > a && yKink < b) {
+                b = yKink;
+            }
+
+            pieces++;
+            half = 0.5 * (b - a);
+            mid = 0.5 * (a + b);
+            for (int i = 0; i < GAUSS_POINTS.length; i++) {
+                y = mid + half * GAUSS_POINTS[i];
+                f = GAUSS_WEIGHTS[i] * half * stress.applyAsDouble(y) * profile.width(y);
+                force += f;
+                moment += f * (y - yLo);
+            }
+
+            if (k < count && profile.getElevation(k) <= b) {
+                k++;
+            }
+            a = b;
+        }
+
+        if (stats != null) {
+            stats.addWidthEvaluations((long) pieces * GAUSS_POINTS.length);
+        }
+        if (force == 0) {
+            return new StressResultant(0, yHi);
+        }
+        return new StressResultant(force, yLo + moment / force);
+    }
+}
@@ -0,0 +1,69 @@
+package com.structuralengineering.rcbeam.analysis;
+
+/**
+ * Resultant of a stress distribution acting over a beam section.
+ */
+public class StressResultant {
+    private double force;                                       // Magnitude of the resultant in N
+    private double elevation;                                   // Elevation of the line of action
+    private double error;                                       // Estimated absolute error of the force
+
+    public StressResultant(double force, double elevation) {
+        this(force, elevation, 0);
+    }
+
+    public StressResultant(double force, double elevation, double error) {
+        this.force = force;
+        this.elevation = elevation;
+        this.error = error;
+    }
+
+    /**
+     * ******************************************
+     * Getters
+     * ******************************************
+     */
+    public double getForce() {
+        return force;
+    }
+
+    public double getElevation() {
+        return elevation;
+    }
+
+    public double getError() {
+        return error;
+    }
+
+    /**
+     * Estimated error of the force relative to its magnitude.
+     *
+     * @return Relative error, zero for exact integration.
+     */
+    public double getRelativeError() {
+        if (force == 0) {
+            return 0;
+        }
+        return Math.abs(error / force);
+    }
+
+    /**
+     * Lever arm of the resultant measured downward from a given elevation.
+     *
+     * @param topElevation Elevation where the lever arm is measured from.
+     * @return Depth of the resultant below topElevation.
+     */
+    public double depthBelow(double topElevation) {
+        return topElevation - elevation;
+    }
+
+    /**
+     * Lever arm of the resultant measured upward from a given elevation.
+     *
+     * @param bottomElevation Elevation where the lever arm is measured from.
+     * @return Height of the resultant above bottomElevation.
+     */
+    public double heightAbove(double bottomElevation) {
+        return elevation - bottomElevation;
+    }
+}
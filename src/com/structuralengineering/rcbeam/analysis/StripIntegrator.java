@@ -0,0 +1,120 @@
+package com.structuralengineering.rcbeam.analysis;
+
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Strip summation of force and moment, in one pass or split into fork/join
+ * tasks.
+ *
+ * Strips are numbered from 1 to count and summed from the highest down, in
+ * chunks of CHUNK_STRIPS. The sequential sum runs through the chunks in
+ * order with one running total. The parallel sum adds every chunk on its
+ * own and combines the chunk totals pairwise along a tree that depends only
+ * on the strip count, so its result is the same bit for bit whatever the
+ * number of workers or the order in which they finish.
+ */
+final class StripIntegrator {
+    // Strips summed by one task, and between two checks of the AnalysisMonitor
+    static final int CHUNK_STRIPS = 1 << 16;
+
+    private StripIntegrator() {
+    }
+
+    /**
+     * Sums strips first to last, in descending order, into a running force
+     * and moment.
+     */
+    interface Kernel {
+        /**
+         * @param first Lowest strip to add
+         * @param last  Highest strip to add, added first
+         * @param sums  Running force and moment, updated in place
+         */
+        void accumulate(int first, int last, double[] sums);
+    }
+
+    /**
+     * Sums all strips on the calling thread with a single running total.
+     *
+     * @param count      Number of strips
+     * @param kernel     Strip summation
+     * @param monitor    Monitor checked before every chunk, or null
+     * @param progressLo Fraction of the analysis done before this integration
+     * @param progressHi Fraction of the analysis done after this integration
+     * @return force and moment
+     */
+    static double[] sequential(int count,
+                               Kernel kernel,
+                               AnalysisMonitor monitor,
+                               double progressLo,
+                               double progressHi) {
+        double[] sums = new double[2];
+        for (int last = count; last > 0; last -= CHUNK_STRIPS) {
+            if (monitor != null) {
+                monitor.checkpoint(progressLo + (progressHi - progressLo) * (count - last) / count);
+            }
+            kernel.accumulate(Math.max(last - CHUNK_STRIPS, 0) + 1, last, sums);
+        }
+        return sums;
+    }
+
+    /**
+     * Sums all strips as fork/join tasks of one chunk each, combined pairwise.
+     * Runs in the pool of the calling worker, or in the common pool.
+     *
+     * @param count   Number of strips
+     * @param kernel  Strip summation, called concurrently
+     * @param monitor Monitor checked before every chunk, or null
+     * @return force and moment
+     */
+    static double[] parallel(int count, Kernel kernel, AnalysisMonitor monitor) {
+        int chunks = (count + CHUNK_STRIPS - 1) / CHUNK_STRIPS;
+        if (chunks == 0) {
+            return new double[2];
+        }
+        return new ChunkSum(count, kernel, monitor, 0, chunks).invoke();
+    }
+
+    /**
+     * Sum of the chunks from fromChunk to toChunk, chunk 0 holding the
+     * highest strips.
+     */
+    private static final class ChunkSum extends RecursiveTask<double[]> {
+        private static final long serialVersionUID = 1L;
+
+        private final int count;
+        private final Kernel kernel;
+        private final AnalysisMonitor monitor;
+        private final int fromChunk;
+        private final int toChunk;
+
+        ChunkSum(int count, Kernel kernel, AnalysisMonitor monitor, int fromChunk, int toChunk) {
+            this.count = count;
+            this.kernel = kernel;
+            this.monitor = monitor;
+            this.fromChunk = fromChunk;
+            this.toChunk = toChunk;
+        }
+
+        @Override
+        protected double[] compute() {
+            if (toChunk - fromChunk == 1) {
+                if (monitor != null) {
+                    monitor.checkpoint();
+                }
+                int last = count - fromChunk * CHUNK_STRIPS;
+                double[] sums = new double[2];
+                kernel.accumulate(Math.max(last - CHUNK_STRIPS, 0) + 1, last, sums);
+                return sums;
+            }
+            int middle = (fromChunk + toChunk) >>> 1;
+            ChunkSum upper = new ChunkSum(count, kernel, monitor, fromChunk, middle);
+            upper.fork();
+            double[] lower = new ChunkSum(count, kernel, monitor, middle, toChunk).compute();
+            double[] sums = upper.join();
+            sums[0] += lower[0];
+            sums[1] += lower[1];
+            return sums;
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package com.structuralengineering.rcbeam.cli;
+
+import com.structuralengineering.rcbeam.analysis.AnalysisSettings;
+import com.structuralengineering.rcbeam.analysis.AnalysisType;
+import com.structuralengineering.rcbeam.analysis.IntegrationMethod;
+import com.structuralengineering.rcbeam.analysis.StressDistribution;
+import com.structuralengineering.rcbeam.io.*;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Command line batch runner.
+ *
+ * Analyzes a section file, or every section file of a directory, and writes
+ * the results to one file or to standard output. Text files (.csv, .jsonl,
+ * .ndjson, .json) are read with SectionReader and catalogs (.cat) with
+ * SectionCatalog. A throughput and latency summary is printed to standard
+ * error at the end.
+ *
+ * Exit status is 0 on success, 1 if a file could not be processed or a
+ * section failed, and 2 for invalid arguments.
+ */
+public final class BatchCommand {
+    private static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: rcbeam <input file or directory> [options]",
+            "  -a, --analyses <list>     uncracked,balanced,capacity (default all)",
+            "  -s, --distribution <sd>   whitney or parabolic (default whitney)",
+            "  -m, --method <method>     exact, adaptive, strip or parallel_strip (default exact)",
+            "  -t, --threads <n>         worker threads (default number of processors)",
+            "  -o, --output <file>       .csv or .jsonl result file (default JSON Lines on stdout)");
+
+    private BatchCommand() {
+    }
+
+    // = = = = = = = = = = = = = = = = = = = = = =
+    //
+    // Methods
+    //
+    // = = = = = = = = = = = = = = = = = = = = = =
+
+    /**
+     * Runs the command.
+     *
+     * @param args Command line arguments
+     * @param out  Stream for the results when no output file is given
+     * @param err  Stream for the summary and errors
+     * @return exit status
+     */
+    public static int run(String[] args, PrintStream out, PrintStream err) {
+        Options options;
+        List<Path> inputs;
+        try {
+            options = Options.parse(args);
+            inputs = inputFiles(options.input);
+        } catch (IllegalArgumentException e) {
+            err.println(e.getMessage());
+            err.println(USAGE);
+            return 2;
+        } catch (IOException e) {
+            err.println("Cannot list the input directory: " + e.getMessage());
+            return 1;
+        }
+
+        AnalysisType[] types = options.types;
+        Map<AnalysisType, LatencyHistogram> latencies = new EnumMap<>(AnalysisType.class);
+        for (AnalysisType type : types) {
+            latencies.put(type, new LatencyHistogram());
+        }
+        StreamingAnalyses streaming = new StreamingAnalyses();
+        streaming.setParallelism(options.threads);
+        streaming.setSettings(options.settings);
+        streaming.setAnalysisTimer((type, nanos) -> latencies.get(type).record(nanos));
+
+        long records = 0, failures = 0;
+        long start = System.nanoTime();
+        ResultWriter writer = null;
+        try {
+            writer = options.output != null
+                    ? ResultWriter.create(options.output, types)
+                    : new ResultWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)),
+                    RecordFormat.JSON_LINES, types);
+            for (Path input : inputs) {
+                try (RecordSource source = openSource(input)) {
+                    StreamSummary summary = streaming.analyze(source, writer, options.sd, types);
+                    records += summary.getRecords();
+                    failures += summary.getFailures();
+                }
+            }
+        } catch (IOException e) {
+            err.println("Batch failed: " + e.getMessage());
+            return 1;
+        } finally {
+            closeQuietly(writer, options.output != null, err);
+        }
+
+        StreamSummary total = new StreamSummary(records, failures, System.nanoTime() - start);
+        err.printf(Locale.ROOT, "%d sections (%d failed) from %d file(s) in %.3f s, %.1f sections/s%n",
+                total.getRecords(), total.getFailures(), inputs.size(),
+                total.getElapsedNanos() / 1e9, total.getRecordsPerSecond());
+        for (AnalysisType type : types) {
+            LatencyHistogram histogram = latencies.get(type);
+            err.printf(Locale.ROOT, "  %-10s p50 %10.1f us   p99 %10.1f us%n",
+                    type.name().toLowerCase(Locale.ROOT),
+                    histogram.percentile(0.50) / 1e3,
+                    histogram.percentile(0.99) / 1e3);
+        }
+        return failures > 0 ? 1 : 0;
+    }
+
+    /**
+     * The input file, or the section files of the input directory by name.
+     */
+    private static List<Path> inputFiles(Path input) throws IOException {
+        if (!Files.exists(input)) {
+            throw new IllegalArgumentException("Input " + input + " does not exist.");
+        }
+        if (!Files.isDirectory(input)) {
+            List<Path> single = new ArrayList<>();
+            single.add(input);
+            return single;
+        }
+        try (Stream<Path> files = Files.list(input)) {
+            return files.filter(f -> Files.isRegularFile(f) && isSectionFile(f))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static boolean isSectionFile(Path path) {
+        String name = path.getFileName().toString().toLowerCase(Locale.ROOT);
+        return name.endsWith(".csv") || name.endsWith(".jsonl") || name.endsWith(".ndjson")
+                || name.endsWith(".json") || name.endsWith(".cat");
+    }
+
+    private static RecordSource openSource(Path input) throws IOException {
+        if (!input.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".cat")) {
+            return SectionReader.open(input);
+        }
+        SectionCatalog catalog = SectionCatalog.open(input);
+        RecordSource records = catalog.records(0, catalog.getRecordCount());
+        return new RecordSource() {
+            @Override
+            public SectionRecord next() throws IOException {
+                return records.next();
+            }
+
+            @Override
+            public void close() throws IOException {
+                catalog.close();
+            }
+        };
+    }
+
+    private static void closeQuietly(ResultWriter writer, boolean ownsStream, PrintStream err) {
+        if (writer == null) {
+            return;
+        }
+        try {
+            if (ownsStream) {
+                writer.close();
+            } else {
+                writer.flush();
+            }
+        } catch (IOException e) {
+            err.println("Cannot write the results: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Parsed command line.
+     */
+    private static final class Options {
+        private Path input;
+        private Path output;
+        private AnalysisType[] types = AnalysisType.values();
+        private StressDistribution sd = StressDistribution.WHITNEY;
+        private int threads = Runtime.getRuntime().availableProcessors();
+        private final AnalysisSettings settings = new AnalysisSettings();
+
+        static Options parse(String[] args) {
+            Options options = new Options();
+            for (int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                if (!arg.startsWith("-")) {
+                    if (options.input != null) {
+                        throw new IllegalArgumentException("Only one input can be given.");
+                    }
+                    options.input = Paths.get(arg);
+                    continue;
+                }
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("Option " + arg + " needs a value.");
+                }
+                String value = args[++i];
+                switch (arg) {
+                    case "-a":
+                    case "--analyses":
+                        options.types = parseTypes(value);
+                        break;
+                    case "-s":
+                    case "--distribution":
+                        options.sd = StressDistribution.valueOf(constant(value, "distribution"));
+                        break;
+                    case "-m":
+                    case "--method":
+                        options.settings.setIntegrationMethod(IntegrationMethod.valueOf(constant(value, "method")));
+                        break;
+                    case "-t":
+                    case "--threads":
+                        options.threads = parseThreads(value);
+                        break;
+                    case "-o":
+                    case "--output":
+                        options.output = Paths.get(value);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option " + arg + ".");
+                }
+            }
+            if (options.input == null) {
+                throw new IllegalArgumentException("No input given.");
+            }
+            return options;
+        }
+
+        private static AnalysisType[] parseTypes(String value) {
+            List<AnalysisType> types = new ArrayList<>();
+            for (String name : value.split(",")) {
+                types.add(AnalysisType.valueOf(constant(name, "analysis")));
+            }
+            return types.toArray(new AnalysisType[0]);
+        }
+
+        private static int parseThreads(String value) {
+            try {
+                int threads = Integer.parseInt(value);
+                if (threads >= 1) {
+                    return threads;
+                }
+            } catch (NumberFormatException e) {
+                // Reported below
+            }
+            throw new IllegalArgumentException("Thread count must be a positive integer.");
+        }
+
+        /**
+         * Upper cases an enum name given on the command line, checking it is a word.
+         */
+        private static String constant(String value, String what) {
+            String name = value.trim().toUpperCase(Locale.ROOT);
+            if (!name.matches("[A-Z_]+")) {
+                throw new IllegalArgumentException("Invalid " + what + " " + value + ".");
+            }
+            return name;
+        }
+    }
+}
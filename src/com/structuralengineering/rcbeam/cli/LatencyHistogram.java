@@ -0,0 +1,80 @@
+package com.structuralengineering.rcbeam.cli;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread safe histogram of latencies with about 3% resolution.
+ *
+ * Each power of two is split into 16 linear buckets, so recording is a
+ * single atomic increment and memory does not grow with the sample count.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKETS = 16;                  // Buckets per power of two
+    private static final int BUCKETS = 64 * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    // = = = = = = = = = = = = = = = = = = = = = =
+    //
+    // Methods
+    //
+    // = = = = = = = = = = = = = = = = = = = = = =
+
+    /**
+     * Records one latency.
+     *
+     * @param nanos Latency in nanoseconds
+     */
+    public void record(long nanos) {
+        counts.incrementAndGet(bucket(Math.max(1, nanos)));
+    }
+
+    /**
+     * Number of latencies recorded.
+     *
+     * @return count
+     */
+    public long getCount() {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += counts.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * Latency below which the given fraction of the samples lie.
+     *
+     * @param fraction Fraction between 0 and 1, e.g. 0.99
+     * @return latency in nanoseconds, 0 if nothing was recorded
+     */
+    public long percentile(double fraction) {
+        long total = getCount();
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(fraction * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return midpoint(i);
+            }
+        }
+        return midpoint(BUCKETS - 1);
+    }
+
+    private static int bucket(long nanos) {
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        int sub = exponent < 4
+                ? (int) ((nanos << (4 - exponent)) & (SUB_BUCKETS - 1))
+                : (int) ((nanos >>> (exponent - 4)) & (SUB_BUCKETS - 1));
+        return exponent * SUB_BUCKETS + sub;
+    }
+
+    private static long midpoint(int bucket) {
+        int exponent = bucket / SUB_BUCKETS;
+        int sub = bucket % SUB_BUCKETS;
+        return Math.round(Math.pow(2, exponent) * (1 + (sub + 0.5) / SUB_BUCKETS));
+    }
+}
@@ -0,0 +1,191 @@
+package com.structuralengineering.rcbeam.io;
+
+import com.structuralengineering.rcbeam.properties.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * View of one record of a SectionCatalog.
+ *
+ * Every getter reads the mapped bytes directly; nothing is cached or copied.
+ * Lengths, offsets and materials are in the unit of the record. The counts,
+ * unit and ring offsets are checked against the segment when the view is
+ * created, so the getters cannot read past the record.
+ */
+public class CatalogRecord {
+    private final ByteBuffer segment;                   // Mapped segment holding the record
+    private final int base;                             // Offset of the record in the segment
+
+    CatalogRecord(ByteBuffer segment, int base) throws IOException {
+        this.segment = segment;
+        this.base = base;
+        validate();
+    }
+
+    // = = = = = = = = = = = = = = = = = = = = = =
+    //
+    // Getters
+    //
+    // = = = = = = = = = = = = = = = = = = = = = =
+
+    public int getVertexCount() {
+        return segment.getInt(base);
+    }
+
+    /**
+     * Number of rings, the main section included.
+     *
+     * @return ring count
+     */
+    public int getRingCount() {
+        return segment.getInt(base + 4);
+    }
+
+    public Unit getUnit() {
+        return Unit.values()[segment.getInt(base + 12)];
+    }
+
+    public double getFcPrime() {
+        return segment.getDouble(base + 16);
+    }
+
+    public double getFy() {
+        return segment.getDouble(base + 24);
+    }
+
+    public double getEffectiveDepth() {
+        return segment.getDouble(base + 32);
+    }
+
+    public double getSteelTensionArea() {
+        return segment.getDouble(base + 40);
+    }
+
+    public double getSteelCompressionArea() {
+        return segment.getDouble(base + 48);
+    }
+
+    public double getdPrime() {
+        return segment.getDouble(base + 56);
+    }
+
+    public int getRingStart(int ring) {
+        return segment.getInt(base + SectionCatalog.RECORD_HEADER_SIZE + 4 * ring);
+    }
+
+    public int getRingEnd(int ring) {
+        return getRingStart(ring + 1);
+    }
+
+    public double getX(int vertex) {
+        return segment.getDouble(coordinatesOffset() + 8 * vertex);
+    }
+
+    public double getY(int vertex) {
+        return segment.getDouble(coordinatesOffset() + 8 * (getVertexCount() + vertex));
+    }
+
+    public String getId() {
+        int length = segment.getInt(base + 8);
+        byte[] bytes = new byte[length];
+        int offset = coordinatesOffset() + 16 * getVertexCount();
+        for (int i = 0; i < length; i++) {
+            bytes[i] = segment.get(offset + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // = = = = = = = = = = = = = = = = = = = = = =
+    //
+    // Methods
+    //
+    // = = = = = = = = = = = = = = = = = = = = = =
+
+    /**
+     * Copies the coordinates into a packed polygon.
+     *
+     * @return PackedPolygon of the main section and clippings
+     */
+    public PackedPolygon toPackedPolygon() {
+        int count = getVertexCount();
+        int rings = getRingCount();
+        double[] xs = new double[count];
+        double[] ys = new double[count];
+        int[] ringOffsets = new int[rings + 1];
+        for (int r = 0; r <= rings; r++) {
+            ringOffsets[r] = getRingStart(r);
+        }
+        // Bulk copies through a duplicate, so concurrent readers do not share a position
+        ByteBuffer view = segment.duplicate().order(segment.order());
+        view.position(coordinatesOffset());
+        view.asDoubleBuffer().get(xs);
+        view.position(coordinatesOffset() + 8 * count);
+        view.asDoubleBuffer().get(ys);
+        return new PackedPolygon(xs, ys, ringOffsets);
+    }
+
+    /**
+     * Prepares the geometry of the record for analysis.
+     *
+     * @return PreparedSection
+     * @throws IllegalArgumentException if the geometry is invalid
+     */
+    public PreparedSection toPreparedSection() {
+        return new PreparedSection(toPackedPolygon());
+    }
+
+    /**
+     * Builds the materials and reinforcement of the record. The geometry is
+     * left out; analyze the result with toPreparedSection.
+     *
+     * @return BeamSection without a Section
+     */
+    public BeamSection toBeamSection() {
+        return SectionReader.materials(getUnit(), getFcPrime(), getFy(), getEffectiveDepth(),
+                getSteelTensionArea(), getSteelCompressionArea(), getdPrime());
+    }
+
+    /**
+     * Checks that the record header is consistent and the record lies inside
+     * its segment.
+     *
+     * @throws IOException if the record is corrupt
+     */
+    private void validate() throws IOException {
+        if (base < SectionCatalog.HEADER_SIZE || (base & 7) != 0
+                || base > segment.limit() - SectionCatalog.RECORD_HEADER_SIZE) {
+            throw new IOException("Catalog record offset " + base + " is out of its segment.");
+        }
+        int count = getVertexCount();
+        int rings = getRingCount();
+        int idLength = segment.getInt(base + 8);
+        int unit = segment.getInt(base + 12);
+        if (count < 0 || rings < 1 || idLength < 0) {
+            throw new IOException("Catalog record at " + base + " has invalid counts.");
+        }
+        if (unit < 0 || unit >= Unit.values().length) {
+            throw new IOException("Catalog record at " + base + " has unknown unit " + unit + ".");
+        }
+        long ringBytes = (4L * (rings + 1) + 7) & ~7L;
+        long end = (long) base + SectionCatalog.RECORD_HEADER_SIZE + ringBytes + 16L * count
+                + ((idLength + 7L) & ~7L);
+        if (end > segment.limit()) {
+            throw new IOException("Catalog record at " + base + " runs past its segment.");
+        }
+        int previous = 0;
+        for (int r = 0; r <= rings; r++) {
+            int start = getRingStart(r);
+            if (start < previous || start > count || (r == 0 && start != 0) || (r == rings && start != count)) {
+                throw new IOException("Catalog record at " + base + " has invalid ring offsets.");
+            }
+            previous = start;
+        }
+    }
+
+    private int coordinatesOffset() {
+        int ringBytes = 4 * (getRingCount() + 1);
+        return base + SectionCatalog.RECORD_HEADER_SIZE + ((ringBytes + 7) & ~7);
+    }
+}
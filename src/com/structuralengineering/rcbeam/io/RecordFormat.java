@@ -0,0 +1,24 @@
+package com.structuralengineering.rcbeam.io;
+
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Text formats of section records and analysis results.
+ */
+public enum RecordFormat {
+    CSV,            // Header line, then one comma separated record per line
+    JSON_LINES;     // One JSON object per line
+
+    /**
+     * Chooses the format from a file extension: .csv for CSV, anything
+     * else (.jsonl, .ndjson, .json) for JSON Lines.
+     *
+     * @param path File path
+     * @return RecordFormat
+     */
+    public static RecordFormat forFile(Path path) {
+        String name = path.getFileName().toString().toLowerCase(Locale.ROOT);
+        return name.endsWith(".csv") ? CSV : JSON_LINES;
+    }
+}
@@ -0,0 +1,17 @@
+package com.structuralengineering.rcbeam.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Sequential source of section records, read by one thread.
+ */
+public interface RecordSource extends Closeable {
+    /**
+     * Reads the next record.
+     *
+     * @return SectionRecord, or null at the end of the source
+     * @throws IOException if the source cannot be read
+     */
+    SectionRecord next() throws IOException;
+}
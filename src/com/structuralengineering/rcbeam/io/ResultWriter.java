@@ -0,0 +1,187 @@
+package com.structuralengineering.rcbeam.io;
+
+import com.structuralengineering.rcbeam.analysis.AnalysisType;
+import com.structuralengineering.rcbeam.analysis.BeamAnalysisResult;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Writes analysis results as CSV or JSON Lines, one line per section.
+ *
+ * Every analysis contributes its moment, curvature and neutral axis depth;
+ * UNCRACKED adds the minimum steel and BALANCED the balanced steel. In CSV
+ * the columns are prefixed with the lower case analysis name, e.g.
+ * capacity_moment, and a final error column holds the reason a section
+ * failed. In JSON Lines each analysis is a nested object, and a failed
+ * section carries an "error" member instead.
+ */
+public class ResultWriter implements Closeable, Flushable {
+    // = = = = = = = = = = = = = = = = = = = = = =
+    //
+    // Properties
+    //
+    // = = = = = = = = = = = = = = = = = = = = = =
+    private final Writer writer;
+    private final RecordFormat format;
+    private final AnalysisType[] types;                         // Analyses of every line, in column order
+    private boolean headerWritten;
+
+    /**
+     * Constructor that writes the results of the given analyses.
+     *
+     * @param writer Destination of the text
+     * @param format RecordFormat of the text
+     * @param types  Analyses of every line, in the order of the result arrays
+     */
+    public ResultWriter(Writer writer, RecordFormat format, AnalysisType... types) {
+        this.writer = writer;
+        this.format = format;
+        this.types = types.clone();
+    }
+
+    /**
+     * Creates a result file, choosing the format from its extension.
+     *
+     * @param path  Result file
+     * @param types Analyses of every line
+     * @return ResultWriter of the file
+     * @throws IOException if the file cannot be created
+     */
+    public static ResultWriter create(Path path, AnalysisType... types) throws IOException {
+        BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8);
+        return new ResultWriter(writer, RecordFormat.forFile(path), types);
+    }
+
+    // = = = = = = = = = = = = = = = = = = = = = =
+    //
+    // Methods
+    //
+    // = = = = = = = = = = = = = = = = = = = = = =
+
+    /**
+     * Writes the results of one section.
+     *
+     * @param id      Record id
+     * @param results Results in the order of the analyses of this writer
+     * @throws IOException if the output cannot be written
+     */
+    public void write(String id, BeamAnalysisResult[] results) throws IOException {
+        writer.write(format(id, results, null));
+    }
+
+    /**
+     * Writes a section that could not be read or analyzed.
+     *
+     * @param id    Record id
+     * @param error Reason of the failure
+     * @throws IOException if the output cannot be written
+     */
+    public void writeError(String id, String error) throws IOException {
+        writer.write(format(id, null, error == null ? "Unknown error." : error));
+    }
+
+    /**
+     * Formats one line of output, with the CSV header before the first one.
+     *
+     * @param id      Record id
+     * @param results Results, or null for a failed section
+     * @param error   Reason of the failure, or null
+     * @return Text of the line including its line break
+     */
+    private String format(String id, BeamAnalysisResult[] results, String error) {
+        StringBuilder sb = new StringBuilder();
+        if (format == RecordFormat.CSV) {
+            if (!headerWritten) {
+                sb.append("id");
+                for (AnalysisType type : types) {
+                    String prefix = type.name().toLowerCase(Locale.ROOT);
+                    sb.append(',').append(prefix).append("_moment")
+                            .append(',').append(prefix).append("_curvature")
+                            .append(',').append(prefix).append("_kd");
+                    if (type != AnalysisType.CAPACITY) {
+                        sb.append(',').append(prefix).append("_steel");
+                    }
+                }
+                sb.append(",error\n");
+                headerWritten = true;
+            }
+            sb.append(csvQuote(id));
+            for (int i = 0; i < types.length; i++) {
+                int count = types[i] == AnalysisType.CAPACITY ? 3 : 4;
+                if (results == null) {
+                    for (int k = 0; k < count; k++) {
+                        sb.append(',');
+                    }
+                    continue;
+                }
+                BeamAnalysisResult result = results[i];
+                sb.append(',').append(result.getMomentC())
+                        .append(',').append(result.getCurvatureC())
+                        .append(',').append(result.getKd());
+                if (count == 4) {
+                    sb.append(',').append(steel(types[i], result));
+                }
+            }
+            sb.append(',');
+            if (error != null) {
+                sb.append(csvQuote(error));
+            }
+        } else {
+            sb.append("{\"id\":").append(Json.quote(id));
+            if (results != null) {
+                for (int i = 0; i < types.length; i++) {
+                    BeamAnalysisResult result = results[i];
+                    sb.append(',').append(Json.quote(types[i].name().toLowerCase(Locale.ROOT)))
+                            .append(":{\"moment\":").append(jsonNumber(result.getMomentC()))
+                            .append(",\"curvature\":").append(jsonNumber(result.getCurvatureC()))
+                            .append(",\"kd\":").append(jsonNumber(result.getKd()));
+                    if (types[i] != AnalysisType.CAPACITY) {
+                        sb.append(",\"steel\":").append(jsonNumber(steel(types[i], result)));
+                    }
+                    sb.append('}');
+                }
+            }
+            if (error != null) {
+                sb.append(",\"error\":").append(Json.quote(error));
+            }
+            sb.append('}');
+        }
+        return sb.append('\n').toString();
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    private static double steel(AnalysisType type, BeamAnalysisResult result) {
+        return type == AnalysisType.UNCRACKED
+                ? result.getMinimumSteelTensionArea()
+                : result.getBalancedSteelTension();
+    }
+
+    private static String jsonNumber(double value) {
+        // JSON has no NaN or infinity
+        return Double.isFinite(value) ? Double.toString(value) : "null";
+    }
+
+    private static String csvQuote(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"").replace('\n', ' ') + '"';
+    }
+}
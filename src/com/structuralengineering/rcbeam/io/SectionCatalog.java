@@ -0,0 +1,226 @@
+package com.structuralengineering.rcbeam.io;
+
+import com.structuralengineering.rcbeam.analysis.AnalysisType;
+import com.structuralengineering.rcbeam.analysis.BatchAnalyses;
+import com.structuralengineering.rcbeam.analysis.BeamAnalysisResult;
+import com.structuralengineering.rcbeam.analysis.StressDistribution;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Read-only, memory-mapped binary catalog of beam sections.
+ *
+ * The file is mapped in segments of up to 1 GiB, so opening it reads only
+ * the header no matter its size, and records are paged in as they are used.
+ * Records are returned as CatalogRecord views over the mapping: nothing is
+ * copied until a record is turned into a beam section or packed polygon,
+ * and no Node objects are ever created. A catalog can be read by any number
+ * of threads at once.
+ *
+ * Layout, little endian, see SectionCatalogWriter:
+ * <pre>
+ * header   int magic, int version, long record count, long index offset, long 0
+ * record   int vertex count, int ring count, int id length, int unit ordinal,
+ *          double fcPrime, fy, d, As, AsPrime, dPrime (in the record's unit),
+ *          int[ring count + 1] ring offsets, padded to 8 bytes,
+ *          double[vertex count] xs, double[vertex count] ys,
+ *          UTF-8 id, padded to 8 bytes
+ * index    long[record count] record offsets
+ * </pre>
+ * Records start on 8 byte boundaries and never cross a segment boundary.
+ */
+public class SectionCatalog implements Closeable {
+    static final int MAGIC = 0x52434243;                // "RCBC"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 32;
+    static final int RECORD_HEADER_SIZE = 64;
+    static final long SEGMENT_SIZE = 1L << 30;          // Bytes mapped per segment
+
+    // = = = = = = = = = = = = = = = = = = = = = =
+    //
+    // Properties
+    //
+    // = = = = = = = = = = = = = = = = = = = = = =
+    private final FileChannel channel;
+    private final ByteBuffer[] segments;                // Mapped segments, read by absolute index only
+    private final long recordCount;
+    private final long indexOffset;
+
+    private SectionCatalog(FileChannel channel) throws IOException {
+        this.channel = channel;
+        long size = channel.size();
+        if (size < HEADER_SIZE) {
+            throw new IOException("File is too short to be a section catalog.");
+        }
+        int segmentCount = (int) ((size + SEGMENT_SIZE - 1) / SEGMENT_SIZE);
+        this.segments = new ByteBuffer[segmentCount];
+        for (int s = 0; s < segmentCount; s++) {
+            long start = s * SEGMENT_SIZE;
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, start,
+                    Math.min(SEGMENT_SIZE, size - start));
+            this.segments[s] = mapped.order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        ByteBuffer header = segments[0];
+        if (header.getInt(0) != MAGIC) {
+            throw new IOException("File is not a section catalog.");
+        }
+        if (header.getInt(4) != VERSION) {
+            throw new IOException("Unsupported section catalog version " + header.getInt(4) + ".");
+        }
+        this.recordCount = header.getLong(8);
+        this.indexOffset = header.getLong(16);
+        if (recordCount < 0 || indexOffset < HEADER_SIZE || indexOffset + 8 * recordCount > size) {
+            throw new IOException("Section catalog index is corrupt.");
+        }
+    }
+
+    /**
+     * Opens and maps a catalog file.
+     *
+     * @param path Catalog file
+     * @return SectionCatalog
+     * @throws IOException if the file cannot be mapped or is not a catalog
+     */
+    public static SectionCatalog open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return new SectionCatalog(channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // = = = = = = = = = = = = = = = = = = = = = =
+    //
+    // Getters
+    //
+    // = = = = = = = = = = = = = = = = = = = = = =
+
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * View of one record.
+     *
+     * @param index Record index, from 0
+     * @return CatalogRecord over the mapped bytes
+     * @throws IOException if the record is corrupt
+     */
+    public CatalogRecord get(long index) throws IOException {
+        if (index < 0 || index >= recordCount) {
+            throw new IndexOutOfBoundsException("Record " + index + " of " + recordCount + ".");
+        }
+        long offset = getLong(indexOffset + 8 * index);
+        if (offset < HEADER_SIZE || offset >= indexOffset) {
+            throw new IOException("Record " + index + " has invalid offset " + offset + ".");
+        }
+        return new CatalogRecord(segments[(int) (offset / SEGMENT_SIZE)], (int) (offset % SEGMENT_SIZE));
+    }
+
+    // = = = = = = = = = = = = = = = = = = = = = =
+    //
+    // Methods
+    //
+    // = = = = = = = = = = = = = = = = = = = = = =
+
+    /**
+     * Analyzes a range of records in parallel. The records are read straight
+     * from the mapping by the worker threads, in index order of the result.
+     *
+     * @param batch Batch runner that supplies the workers and settings
+     * @param from  First record of the range
+     * @param count Number of records in the range
+     * @param sd    Stress distribution used by the balanced and capacity analyses.
+     * @param types Analyses to run on every record.
+     * @return One array of results per record of the range.
+     * @throws UncheckedIOException if a record of the range is corrupt
+     */
+    public List<BeamAnalysisResult[]> analyze(BatchAnalyses batch,
+                                              long from,
+                                              int count,
+                                              StressDistribution sd,
+                                              AnalysisType... types) {
+        if (from < 0 || count < 0 || from + count > recordCount) {
+            throw new IndexOutOfBoundsException("Records " + from + " to " + (from + count)
+                    + " of " + recordCount + ".");
+        }
+        return batch.analyze(count,
+                i -> getUnchecked(from + i).toBeamSection(),
+                i -> getUnchecked(from + i).toPreparedSection(),
+                sd,
+                types);
+    }
+
+    /**
+     * Reads a range of records in order, for StreamingAnalyses. Each record
+     * carries its materials and a copy of its coordinates; a corrupt record
+     * is returned with an error.
+     *
+     * @param from First record of the range
+     * @param to   Record after the last of the range
+     * @return RecordSource of the range
+     */
+    public RecordSource records(long from, long to) {
+        if (from < 0 || to < from || to > recordCount) {
+            throw new IndexOutOfBoundsException("Records " + from + " to " + to + " of " + recordCount + ".");
+        }
+        return new RecordSource() {
+            private long next = from;
+
+            @Override
+            public SectionRecord next() {
+                if (next >= to) {
+                    return null;
+                }
+                long index = next++;
+                CatalogRecord record;
+                try {
+                    record = get(index);
+                } catch (IOException e) {
+                    return new SectionRecord("record " + (index + 1), index + 1, e.getMessage());
+                }
+                return new SectionRecord(record.getId(), index + 1, record.toBeamSection(), record.toPackedPolygon());
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+
+    /**
+     * Releases the file handle. The mappings stay valid until they are
+     * garbage collected.
+     *
+     * @throws IOException if the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private CatalogRecord getUnchecked(long index) {
+        try {
+            return get(index);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private long getLong(long position) {
+        // 8 byte aligned, so never split between segments
+        return segments[(int) (position / SEGMENT_SIZE)].getLong((int) (position % SEGMENT_SIZE));
+    }
+}
@@ -0,0 +1,190 @@
+package com.structuralengineering.rcbeam.io;
+
+import com.structuralengineering.rcbeam.properties.BeamSection;
+import com.structuralengineering.rcbeam.properties.PackedPolygon;
+import com.structuralengineering.rcbeam.properties.Unit;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Writes beam sections to a binary SectionCatalog file.
+ *
+ * Records are appended in the order added and the index is written by
+ * close, so a catalog is not readable until its writer is closed.
+ */
+public class SectionCatalogWriter implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    // = = = = = = = = = = = = = = = = = = = = = =
+    //
+    // Properties
+    //
+    // = = = = = = = = = = = = = = = = = = = = = =
+    private final FileChannel channel;
+    private ByteBuffer buffer;                                  // Staging buffer, grown for large records
+    private long position;                                      // File offset of the next byte added
+    private long flushed;                                       // File offset of the staging buffer
+    private long[] offsets = new long[1024];                    // Record offsets, written as the index
+    private long recordCount;
+
+    private SectionCatalogWriter(FileChannel channel) {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        this.position = SectionCatalog.HEADER_SIZE;
+        this.flushed = SectionCatalog.HEADER_SIZE;              // The header is written last
+    }
+
+    /**
+     * Creates or truncates a catalog file.
+     *
+     * @param path Catalog file
+     * @return SectionCatalogWriter
+     * @throws IOException if the file cannot be created
+     */
+    public static SectionCatalogWriter create(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        return new SectionCatalogWriter(channel);
+    }
+
+    // = = = = = = = = = = = = = = = = = = = = = =
+    //
+    // Methods
+    //
+    // = = = = = = = = = = = = = = = = = = = = = =
+
+    /**
+     * Appends a beam section. Lengths, areas and stresses are stored in the
+     * unit of the beam section.
+     *
+     * @param id          Record id
+     * @param beamSection Beam section with a valid Section
+     * @throws IOException if the file cannot be written
+     */
+    public void add(String id, BeamSection beamSection) throws IOException {
+        PackedPolygon polygon = beamSection.getSection().getPackedPolygon();
+        Unit unit = beamSection.getUnit();
+        byte[] idBytes = id.getBytes(StandardCharsets.UTF_8);
+        int count = polygon.getVertexCount();
+        int rings = polygon.getRingCount();
+        int ringBytes = align(4 * (rings + 1));
+        long size = SectionCatalog.RECORD_HEADER_SIZE + ringBytes + 16L * count + align(idBytes.length);
+        if (size > SectionCatalog.SEGMENT_SIZE) {
+            throw new IllegalArgumentException("Section " + id + " is too large for a catalog record.");
+        }
+
+        // Keep every record inside one mapped segment
+        long segmentEnd = (position / SectionCatalog.SEGMENT_SIZE + 1) * SectionCatalog.SEGMENT_SIZE;
+        if (position + size > segmentEnd) {
+            pad(segmentEnd - position);
+        }
+        if (recordCount == offsets.length) {
+            offsets = Arrays.copyOf(offsets, offsets.length * 2);
+        }
+        offsets[(int) recordCount++] = position;
+
+        ensure(size);
+        buffer.putInt(count);
+        buffer.putInt(rings);
+        buffer.putInt(idBytes.length);
+        buffer.putInt(unit.ordinal());
+        buffer.putDouble(beamSection.getFcPrime());
+        buffer.putDouble(beamSection.getFy());
+        buffer.putDouble(beamSection.getEffectiveDepth());
+        buffer.putDouble(beamSection.getSteelTension().getTotalArea(unit));
+        buffer.putDouble(beamSection.getSteelCompression().getTotalArea(unit));
+        buffer.putDouble(beamSection.getSteelCompression().getdPrime(unit));
+        for (int r = 0; r < rings; r++) {
+            buffer.putInt(polygon.getRingStart(r));
+        }
+        buffer.putInt(count);
+        zeros(ringBytes - 4 * (rings + 1));
+        for (int i = 0; i < count; i++) {
+            buffer.putDouble(polygon.getXs()[i]);
+        }
+        for (int i = 0; i < count; i++) {
+            buffer.putDouble(polygon.getYs()[i]);
+        }
+        buffer.put(idBytes);
+        zeros(align(idBytes.length) - idBytes.length);
+        position += size;
+    }
+
+    /**
+     * Writes the index and header and closes the file.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            long indexOffset = position;
+            for (int i = 0; i < recordCount; i++) {
+                ensure(8);
+                buffer.putLong(offsets[i]);
+            }
+            flush();
+
+            ByteBuffer header = ByteBuffer.allocate(SectionCatalog.HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(SectionCatalog.MAGIC);
+            header.putInt(SectionCatalog.VERSION);
+            header.putLong(recordCount);
+            header.putLong(indexOffset);
+            header.putLong(0);
+            header.flip();
+            long at = 0;
+            while (header.hasRemaining()) {
+                at += channel.write(header, at);
+            }
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void pad(long bytes) throws IOException {
+        for (long i = 0; i < bytes; i += 8) {
+            ensure(8);
+            buffer.putLong(0);
+        }
+        position += bytes;
+    }
+
+    private void zeros(int bytes) {
+        for (int i = 0; i < bytes; i++) {
+            buffer.put((byte) 0);
+        }
+    }
+
+    /**
+     * Makes room for the given number of bytes in the staging buffer.
+     */
+    private void ensure(long bytes) throws IOException {
+        if (buffer.remaining() >= bytes) {
+            return;
+        }
+        flush();
+        if (buffer.capacity() < bytes) {
+            buffer = ByteBuffer.allocate((int) bytes).order(ByteOrder.LITTLE_ENDIAN);
+        }
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            flushed += channel.write(buffer, flushed);
+        }
+        buffer.clear();
+    }
+
+    private static int align(int bytes) {
+        return (bytes + 7) & ~7;
+    }
+}
@@ -0,0 +1,332 @@
+package com.structuralengineering.rcbeam.io;
+
+import com.structuralengineering.rcbeam.properties.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads beam sections one record at a time from CSV or JSON Lines text.
+ *
+ * Both formats carry the same fields:
+ * id, unit (METRIC or ENGLISH, default METRIC), fcPrime, fy, d, As,
+ * AsPrime and dPrime (default 0), nodes and clippings (default none).
+ * In JSON Lines, nodes is an array of [x, y] pairs and clippings an array
+ * of such arrays. In CSV the first line names the columns, nodes is written
+ * "x y;x y;..." and the clipping rings are separated by '|'.
+ *
+ * Only the current line is held in memory. A malformed record does not stop
+ * the reader; it is returned as a SectionRecord carrying the error.
+ */
+public class SectionReader implements RecordSource {
+    // = = = = = = = = = = = = = = = = = = = = = =
+    //
+    // Properties
+    //
+    // = = = = = = = = = = = = = = = = = = = = = =
+    private final BufferedReader reader;
+    private final RecordFormat format;
+    private Map<String, Integer> columns;                       // CSV column indices by name
+    private long lineNumber;
+
+    /**
+     * Constructor that reads records of the given format.
+     *
+     * @param reader Source of the text
+     * @param format RecordFormat of the text
+     */
+    public SectionReader(BufferedReader reader, RecordFormat format) {
+        this.reader = reader;
+        this.format = format;
+    }
+
+    /**
+     * Opens a record file, choosing the format from its extension.
+     *
+     * @param path Record file
+     * @return SectionReader of the file
+     * @throws IOException if the file cannot be opened
+     */
+    public static SectionReader open(Path path) throws IOException {
+        return new SectionReader(Files.newBufferedReader(path, StandardCharsets.UTF_8), RecordFormat.forFile(path));
+    }
+
+    // = = = = = = = = = = = = = = = = = = = = = =
+    //
+    // Methods
+    //
+    // = = = = = = = = = = = = = = = = = = = = = =
+
+    /**
+     * Reads the next record, skipping blank lines.
+     *
+     * @return SectionRecord, or null at the end of the input
+     * @throws IOException if the input cannot be read
+     */
+    @Override
+    public SectionRecord next() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+            lineNumber++;
+        } while (line.trim().isEmpty());
+
+        if (format == RecordFormat.JSON_LINES) {
+            return parseJson(line, lineNumber);
+        }
+        if (columns == null) {
+            columns = new HashMap<>();
+            List<String> names = splitCsv(line);
+            for (int i = 0; i < names.size(); i++) {
+                columns.put(names.get(i).trim(), i);
+            }
+            return next();
+        }
+        return parseCsv(line);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * Parses one JSON object into a section record.
+     *
+     * @param text       JSON object
+     * @param lineNumber Line of the object, used in errors and as default id
+     * @return SectionRecord, carrying the error if the object is malformed
+     */
+    public static SectionRecord parseJson(String text, long lineNumber) {
+        Object parsed;
+        try {
+            parsed = Json.parse(text);
+        } catch (IllegalArgumentException e) {
+            return new SectionRecord("line " + lineNumber, lineNumber, e.getMessage());
+        }
+        return fromJson(parsed, lineNumber);
+    }
+
+    /**
+     * Converts one parsed JSON value, as returned by Json.parse, into a
+     * section record.
+     *
+     * @param parsed     Parsed JSON object
+     * @param lineNumber Position of the object, used in errors and as default id
+     * @return SectionRecord, carrying the error if the object is malformed
+     */
+    public static SectionRecord fromJson(Object parsed, long lineNumber) {
+        String id = "line " + lineNumber;
+        try {
+            if (!(parsed instanceof Map)) {
+                throw new IllegalArgumentException("Record is not a JSON object.");
+            }
+            Map<?, ?> object = (Map<?, ?>) parsed;
+            if (object.get("id") != null) {
+                id = String.valueOf(object.get("id"));
+            }
+            List<List<Node>> clippings = new ArrayList<>();
+            if (object.get("clippings") != null) {
+                for (Object ring : asList(object.get("clippings"), "clippings")) {
+                    clippings.add(jsonNodes(ring));
+                }
+            }
+            BeamSection beamSection = build(
+                    object.get("unit") == null ? Unit.METRIC : Unit.valueOf(String.valueOf(object.get("unit"))),
+                    jsonNumber(object, "fcPrime", null),
+                    jsonNumber(object, "fy", null),
+                    jsonNumber(object, "d", null),
+                    jsonNumber(object, "As", null),
+                    jsonNumber(object, "AsPrime", 0.0),
+                    jsonNumber(object, "dPrime", 0.0),
+                    jsonNodes(object.get("nodes")),
+                    clippings);
+            return new SectionRecord(id, lineNumber, beamSection);
+        } catch (RuntimeException e) {
+            return new SectionRecord(id, lineNumber, e.getMessage());
+        }
+    }
+
+    private SectionRecord parseCsv(String line) {
+        String id = "line " + lineNumber;
+        try {
+            List<String> fields = splitCsv(line);
+            String value = csvField(fields, "id");
+            if (value != null) {
+                id = value;
+            }
+            String unit = csvField(fields, "unit");
+            String clippingText = csvField(fields, "clippings");
+            List<List<Node>> clippings = new ArrayList<>();
+            if (clippingText != null) {
+                for (String ring : clippingText.split("\\|")) {
+                    clippings.add(csvNodes(ring));
+                }
+            }
+            BeamSection beamSection = build(
+                    unit == null ? Unit.METRIC : Unit.valueOf(unit),
+                    csvNumber(fields, "fcPrime", null),
+                    csvNumber(fields, "fy", null),
+                    csvNumber(fields, "d", null),
+                    csvNumber(fields, "As", null),
+                    csvNumber(fields, "AsPrime", 0.0),
+                    csvNumber(fields, "dPrime", 0.0),
+                    csvNodes(csvField(fields, "nodes")),
+                    clippings);
+            return new SectionRecord(id, lineNumber, beamSection);
+        } catch (RuntimeException e) {
+            return new SectionRecord(id, lineNumber, e.getMessage());
+        }
+    }
+
+    /**
+     * Assembles a beam section from the record fields.
+     */
+    private static BeamSection build(Unit unit, double fcPrime, double fy, double d,
+                                     double As, double AsPrime, double dPrime,
+                                     List<Node> nodes, List<List<Node>> clippings) {
+        Section section = new Section(nodes, clippings);
+        BeamSection beamSection = materials(unit, fcPrime, fy, d, As, AsPrime, dPrime);
+        beamSection.setSection(section);
+        return beamSection;
+    }
+
+    /**
+     * Assembles the materials and reinforcement of a beam section, without
+     * its geometry.
+     */
+    static BeamSection materials(Unit unit, double fcPrime, double fy, double d,
+                                 double As, double AsPrime, double dPrime) {
+        BeamSection beamSection = new BeamSection();
+        beamSection.setUnit(unit);
+        beamSection.setFcPrime(fcPrime);
+        beamSection.setFy(fy);
+        beamSection.setEffectiveDepth(d);
+
+        SteelTension steelTension = new SteelTension();
+        steelTension.setTotalArea(As, unit);
+        SteelCompression steelCompression = new SteelCompression();
+        steelCompression.setTotalArea(AsPrime, unit);
+        steelCompression.setdPrime(dPrime, unit);
+        beamSection.setSteelTension(steelTension);
+        beamSection.setSteelCompression(steelCompression);
+        return beamSection;
+    }
+
+    private static double jsonNumber(Map<?, ?> object, String name, Double fallback) {
+        Object value = object.get(name);
+        if (value == null) {
+            if (fallback == null) {
+                throw new IllegalArgumentException("Missing field " + name + ".");
+            }
+            return fallback;
+        }
+        if (!(value instanceof Double)) {
+            throw new IllegalArgumentException("Field " + name + " is not a number.");
+        }
+        return (Double) value;
+    }
+
+    private static List<Node> jsonNodes(Object value) {
+        List<Node> nodes = new ArrayList<>();
+        for (Object point : asList(value, "nodes")) {
+            List<?> xy = asList(point, "node");
+            if (xy.size() != 2 || !(xy.get(0) instanceof Double) || !(xy.get(1) instanceof Double)) {
+                throw new IllegalArgumentException("A node must be an [x, y] pair of numbers.");
+            }
+            nodes.add(new Node((Double) xy.get(0), (Double) xy.get(1)));
+        }
+        return nodes;
+    }
+
+    private static List<?> asList(Object value, String name) {
+        if (!(value instanceof List)) {
+            throw new IllegalArgumentException("Field " + name + " is not an array.");
+        }
+        return (List<?>) value;
+    }
+
+    private String csvField(List<String> fields, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private double csvNumber(List<String> fields, String name, Double fallback) {
+        String value = csvField(fields, name);
+        if (value == null) {
+            if (fallback == null) {
+                throw new IllegalArgumentException("Missing field " + name + ".");
+            }
+            return fallback;
+        }
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Field " + name + " is not a number.");
+        }
+    }
+
+    private static List<Node> csvNodes(String text) {
+        if (text == null) {
+            throw new IllegalArgumentException("Missing field nodes.");
+        }
+        List<Node> nodes = new ArrayList<>();
+        for (String point : text.split(";")) {
+            String[] xy = point.trim().split("\\s+");
+            if (xy.length != 2) {
+                throw new IllegalArgumentException("A node must be written \"x y\".");
+            }
+            try {
+                nodes.add(new Node(Double.parseDouble(xy[0]), Double.parseDouble(xy[1])));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Node \"" + point.trim() + "\" is not a pair of numbers.");
+            }
+        }
+        return nodes;
+    }
+
+    /**
+     * Splits a CSV line, honoring double quoted fields.
+     */
+    private static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
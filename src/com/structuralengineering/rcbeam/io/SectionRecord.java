@@ -0,0 +1,106 @@
+package com.structuralengineering.rcbeam.io;
+
+import com.structuralengineering.rcbeam.properties.BeamSection;
+import com.structuralengineering.rcbeam.properties.PackedPolygon;
+import com.structuralengineering.rcbeam.properties.PreparedSection;
+
+/**
+ * One beam section read from a record file, or the reason it could not be read.
+ */
+public class SectionRecord {
+    // = = = = = = = = = = = = = = = = = = = = = =
+    //
+    // Properties
+    //
+    // = = = = = = = = = = = = = = = = = = = = = =
+    private final String id;                            // Record id, or "line N" when it has none
+    private final long lineNumber;                      // Line of the record in its file, from 1
+    private final BeamSection beamSection;              // null if the record is malformed
+    private final PackedPolygon polygon;                // Geometry when the beam section has no Section
+    private final String error;                         // Parse error, null if the record is valid
+
+    /**
+     * Constructor of a valid record.
+     *
+     * @param id          Record id
+     * @param lineNumber  Line of the record in its file
+     * @param beamSection Beam section described by the record
+     */
+    public SectionRecord(String id, long lineNumber, BeamSection beamSection) {
+        this(id, lineNumber, beamSection, null);
+    }
+
+    /**
+     * Constructor of a valid record whose geometry is already packed.
+     *
+     * @param id          Record id
+     * @param lineNumber  Position of the record in its source
+     * @param beamSection Materials and reinforcement of the record
+     * @param polygon     Geometry of the record, or null to use the Section
+     *                    of the beam section
+     */
+    public SectionRecord(String id, long lineNumber, BeamSection beamSection, PackedPolygon polygon) {
+        this.id = id;
+        this.lineNumber = lineNumber;
+        this.beamSection = beamSection;
+        this.polygon = polygon;
+        this.error = null;
+    }
+
+    /**
+     * Constructor of a malformed record.
+     *
+     * @param id         Record id
+     * @param lineNumber Line of the record in its file
+     * @param error      Reason the record could not be read
+     */
+    public SectionRecord(String id, long lineNumber, String error) {
+        this.id = id;
+        this.lineNumber = lineNumber;
+        this.beamSection = null;
+        this.polygon = null;
+        this.error = error;
+    }
+
+    // = = = = = = = = = = = = = = = = = = = = = =
+    //
+    // Getters
+    //
+    // = = = = = = = = = = = = = = = = = = = = = =
+
+    public String getId() {
+        return id;
+    }
+
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    public BeamSection getBeamSection() {
+        return beamSection;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public boolean hasError() {
+        return error != null;
+    }
+
+    // = = = = = = = = = = = = = = = = = = = = = =
+    //
+    // Methods
+    //
+    // = = = = = = = = = = = = = = = = = = = = = =
+
+    /**
+     * Prepares the geometry of a valid record for analysis.
+     *
+     * @return PreparedSection
+     * @throws IllegalArgumentException if the geometry is invalid
+     */
+    public PreparedSection prepare() {
+        return polygon != null ? new PreparedSection(polygon) : new PreparedSection(beamSection.getSection());
+    }
+}
@@ -0,0 +1,49 @@
+package com.structuralengineering.rcbeam.io;
+
+/**
+ * Progress of a streaming run: records done, failures and elapsed time.
+ */
+public class StreamSummary {
+    private final long records;                         // Records written, failed ones included
+    private final long failures;                        // Records that could not be read or analyzed
+    private final long elapsedNanos;                    // Wall time since the run started
+
+    public StreamSummary(long records, long failures, long elapsedNanos) {
+        this.records = records;
+        this.failures = failures;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    // = = = = = = = = = = = = = = = = = = = = = =
+    //
+    // Getters
+    //
+    // = = = = = = = = = = = = = = = = = = = = = =
+
+    public long getRecords() {
+        return records;
+    }
+
+    public long getFailures() {
+        return failures;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Sustained throughput over the whole run so far.
+     *
+     * @return records per second, 0 before any time has elapsed
+     */
+    public double getRecordsPerSecond() {
+        return elapsedNanos <= 0 ? 0 : records * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d records (%d failed) in %.3f s, %.1f records/s",
+                records, failures, elapsedNanos / 1e9, getRecordsPerSecond());
+    }
+}
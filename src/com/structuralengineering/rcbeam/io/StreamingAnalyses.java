@@ -0,0 +1,287 @@
+package com.structuralengineering.rcbeam.io;
+
+import com.structuralengineering.rcbeam.analysis.AnalysisSettings;
+import com.structuralengineering.rcbeam.analysis.AnalysisType;
+import com.structuralengineering.rcbeam.analysis.BeamAnalysisEngine;
+import com.structuralengineering.rcbeam.analysis.BeamAnalysisResult;
+import com.structuralengineering.rcbeam.analysis.StressDistribution;
+import com.structuralengineering.rcbeam.properties.PreparedSection;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Streams section records through the beam analyses in parallel.
+ *
+ * The calling thread reads records and submits them to a pool of workers,
+ * and writes the results as they complete in input order. At most
+ * maxInFlight records are read ahead of the output, so memory use does not
+ * grow with the size of the input: once the window is full, reading waits
+ * for the oldest record to be written.
+ *
+ * A record that cannot be read or analyzed is written as an error line and
+ * counted in the summary; it does not stop the run.
+ */
+public class StreamingAnalyses {
+    // = = = = = = = = = = = = = = = = = = = = = =
+    //
+    // Properties
+    //
+    // = = = = = = = = = = = = = = = = = = = = = =
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    private int maxInFlight = 0;                                // Records read ahead, 0 for 64 per worker
+    private long progressInterval = 100000;                     // Records between progress reports
+    private Consumer<StreamSummary> progressListener;           // null for no progress reports
+    private ObjLongConsumer<AnalysisType> analysisTimer;        // null for no per-analysis timing
+    private AnalysisSettings settings = new AnalysisSettings();
+    private ForkJoinPool pool;                                  // Created on first use
+
+    // = = = = = = = = = = = = = = = = = = = = = =
+    //
+    // Getters
+    //
+    // = = = = = = = = = = = = = = = = = = = = = =
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight > 0 ? maxInFlight : 64 * parallelism;
+    }
+
+    public long getProgressInterval() {
+        return progressInterval;
+    }
+
+    /**
+     * Settings used for every record.
+     *
+     * @return A copy of the settings.
+     */
+    public AnalysisSettings getSettings() {
+        return new AnalysisSettings(settings);
+    }
+
+    // = = = = = = = = = = = = = = = = = = = = = =
+    //
+    // Setters
+    //
+    // = = = = = = = = = = = = = = = = = = = = = =
+
+    /**
+     * Sets the number of worker threads. Defaults to the number of processors.
+     *
+     * @param parallelism Number of workers, at least 1.
+     */
+    public synchronized void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1.");
+        }
+        if (parallelism != this.parallelism && this.pool != null) {
+            this.pool.shutdown();
+            this.pool = null;
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Sets the number of records that may be read ahead of the output.
+     * This bounds the memory used by a run.
+     *
+     * @param maxInFlight Records in flight, or 0 for 64 per worker.
+     */
+    public void setMaxInFlight(int maxInFlight) {
+        if (maxInFlight < 0) {
+            throw new IllegalArgumentException("Records in flight cannot be negative.");
+        }
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Sets a listener called on the calling thread every progressInterval
+     * records with the progress so far.
+     *
+     * @param progressListener Listener, or null for none
+     * @param progressInterval Records between calls, at least 1
+     */
+    public void setProgressListener(Consumer<StreamSummary> progressListener, long progressInterval) {
+        if (progressInterval < 1) {
+            throw new IllegalArgumentException("Progress interval must be at least 1.");
+        }
+        this.progressListener = progressListener;
+        this.progressInterval = progressInterval;
+    }
+
+    /**
+     * Sets a callback given the wall time in nanoseconds of every analysis.
+     * It is called from the worker threads and must be thread safe.
+     *
+     * @param analysisTimer Callback, or null for none
+     */
+    public void setAnalysisTimer(ObjLongConsumer<AnalysisType> analysisTimer) {
+        this.analysisTimer = analysisTimer;
+    }
+
+    /**
+     * Sets the settings used for every record. They are copied.
+     *
+     * @param settings AnalysisSettings
+     */
+    public void setSettings(AnalysisSettings settings) {
+        this.settings = new AnalysisSettings(settings);
+    }
+
+    // = = = = = = = = = = = = = = = = = = = = = =
+    //
+    // Methods
+    //
+    // = = = = = = = = = = = = = = = = = = = = = =
+
+    /**
+     * Analyzes a record file into a result file, choosing both formats from
+     * the file extensions.
+     *
+     * @param input  Record file, .csv or .jsonl
+     * @param output Result file, .csv or .jsonl
+     * @param sd     Stress distribution used by the balanced and capacity analyses.
+     * @param types  Analyses to run on every record.
+     * @return StreamSummary of the run
+     * @throws IOException if a file cannot be read or written
+     */
+    public StreamSummary analyze(Path input, Path output, StressDistribution sd, AnalysisType... types)
+            throws IOException {
+        try (SectionReader reader = SectionReader.open(input);
+             ResultWriter writer = ResultWriter.create(output, types)) {
+            return analyze(reader, writer, sd, types);
+        }
+    }
+
+    /**
+     * Analyzes every record of a reader and writes the results in input order.
+     * The writer must have been created for the same analyses.
+     *
+     * @param reader Source of the records
+     * @param writer Destination of the results
+     * @param sd     Stress distribution used by the balanced and capacity analyses.
+     * @param types  Analyses to run on every record.
+     * @return StreamSummary of the run
+     * @throws IOException if the input cannot be read or the output written
+     */
+    public StreamSummary analyze(RecordSource reader,
+                                 ResultWriter writer,
+                                 StressDistribution sd,
+                                 AnalysisType... types) throws IOException {
+        AnalysisType[] requested = types.clone();
+        BeamAnalysisEngine engine = new BeamAnalysisEngine(this.settings);
+        ObjLongConsumer<AnalysisType> timer = this.analysisTimer;
+        ForkJoinPool workers = getPool();
+        int window = getMaxInFlight();
+        ArrayDeque<ForkJoinTask<Outcome>> inFlight = new ArrayDeque<>();
+        long start = System.nanoTime();
+        long[] counts = new long[2];                            // Records written, failures
+
+        try {
+            SectionRecord record;
+            while ((record = reader.next()) != null) {
+                if (inFlight.size() >= window) {
+                    writeOldest(inFlight, writer, counts, start);
+                }
+                SectionRecord next = record;
+                inFlight.add(workers.submit(() -> analyzeOne(engine, next, sd, requested, timer)));
+            }
+            while (!inFlight.isEmpty()) {
+                writeOldest(inFlight, writer, counts, start);
+            }
+        } finally {
+            // On failure, drop the records still queued
+            for (ForkJoinTask<Outcome> task : inFlight) {
+                task.cancel(false);
+            }
+        }
+        writer.flush();
+        return new StreamSummary(counts[0], counts[1], System.nanoTime() - start);
+    }
+
+    private void writeOldest(ArrayDeque<ForkJoinTask<Outcome>> inFlight,
+                             ResultWriter writer,
+                             long[] counts,
+                             long start) throws IOException {
+        Outcome outcome;
+        try {
+            outcome = inFlight.peekFirst().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for an analysis.");
+        } catch (ExecutionException e) {
+            throw new IOException("Analysis failed unexpectedly.", e.getCause());
+        }
+        inFlight.removeFirst();
+        if (outcome.error != null) {
+            writer.writeError(outcome.id, outcome.error);
+            counts[1]++;
+        } else {
+            writer.write(outcome.id, outcome.results);
+        }
+        counts[0]++;
+        if (progressListener != null && counts[0] % progressInterval == 0) {
+            progressListener.accept(new StreamSummary(counts[0], counts[1], System.nanoTime() - start));
+        }
+    }
+
+    /**
+     * Analyzes one record, turning every failure into an error outcome.
+     */
+    private static Outcome analyzeOne(BeamAnalysisEngine engine,
+                                      SectionRecord record,
+                                      StressDistribution sd,
+                                      AnalysisType[] types,
+                                      ObjLongConsumer<AnalysisType> timer) {
+        if (record.hasError()) {
+            return new Outcome(record.getId(), null, record.getError());
+        }
+        try {
+            PreparedSection prepared = record.prepare();
+            BeamAnalysisResult[] results = new BeamAnalysisResult[types.length];
+            for (int i = 0; i < types.length; i++) {
+                long start = timer != null ? System.nanoTime() : 0;
+                results[i] = engine.analyze(types[i], record.getBeamSection(), prepared, sd);
+                if (timer != null) {
+                    timer.accept(types[i], System.nanoTime() - start);
+                }
+            }
+            return new Outcome(record.getId(), results, null);
+        } catch (RuntimeException e) {
+            return new Outcome(record.getId(), null, String.valueOf(e.getMessage()));
+        }
+    }
+
+    private synchronized ForkJoinPool getPool() {
+        if (this.pool == null) {
+            this.pool = new ForkJoinPool(this.parallelism);
+        }
+        return this.pool;
+    }
+
+    /**
+     * Results or error of one record.
+     */
+    private static final class Outcome {
+        private final String id;
+        private final BeamAnalysisResult[] results;
+        private final String error;
+
+        Outcome(String id, BeamAnalysisResult[] results, String error) {
+            this.id = id;
+            this.results = results;
+            this.error = error;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.structuralengineering.rcbeam.properties;
+
+import java.util.List;
+
+/**
+ * Section polygons packed into contiguous coordinate arrays.
+ *
+ * Ring 0 is the main section and the remaining rings are the clippings.
+ * Ring r occupies indices [getRingStart(r), getRingEnd(r)) of both arrays.
+ * Rings are stored unclosed, a repeated closing node is dropped.
+ * The arrays are shared, not copied, and must not be modified.
+ */
+public final class PackedPolygon {
+    private final double[] xs;                          // Abscissas of all rings
+    private final double[] ys;                          // Ordinates of all rings
+    private final int[] ringOffsets;                    // Start of each ring, plus the total count
+
+    /**
+     * Packs a main section and its clippings.
+     *
+     * @param mainSection Main polygon.
+     * @param clippings   Hollow polygons.
+     */
+    public PackedPolygon(List<Node> mainSection, List<List<Node>> clippings) {
+        int count = mainSection.size();
+        for (List<Node> clipping : clippings) {
+            count += clipping.size();
+        }
+        this.xs = new double[count];
+        this.ys = new double[count];
+        this.ringOffsets = new int[clippings.size() + 2];
+
+        int n = pack(mainSection, 0);
+        this.ringOffsets[1] = n;
+        for (int r = 0; r < clippings.size(); r++) {
+            n = pack(clippings.get(r), n);
+            this.ringOffsets[r + 2] = n;
+        }
+    }
+
+    /**
+     * Wraps already packed coordinates.
+     *
+     * @param xs          Abscissas of all rings.
+     * @param ys          Ordinates of all rings.
+     * @param ringOffsets Start index of each ring followed by the vertex count.
+     */
+    public PackedPolygon(double[] xs, double[] ys, int[] ringOffsets) {
+        this.xs = xs;
+        this.ys = ys;
+        this.ringOffsets = ringOffsets;
+    }
+
+    // = = = = = = = = = = = = = = = = = = = = = =
+    //
+    // Getters
+    //
+    // = = = = = = = = = = = = = = = = = = = = = =
+
+    public double[] getXs() {
+        return xs;
+    }
+
+    public double[] getYs() {
+        return ys;
+    }
+
+    /**
+     * Number of rings, the main section included.
+     *
+     * @return ring count
+     */
+    public int getRingCount() {
+        return ringOffsets.length - 1;
+    }
+
+    public int getRingStart(int ring) {
+        return ringOffsets[ring];
+    }
+
+    public int getRingEnd(int ring) {
+        return ringOffsets[ring + 1];
+    }
+
+    public int getVertexCount() {
+        return ringOffsets[ringOffsets.length - 1];
+    }
+
+    // = = = = = = = = = = = = = = = = = = = = = =
+    //
+    // Methods
+    //
+    // = = = = = = = = = = = = = = = = = = = = = =
+
+    /**
+     * Copies one ring into the arrays, dropping a closing node equal to the first.
+     *
+     * @return index after the last copied node
+     */
+    private int pack(List<Node> nodes, int start) {
+        int size = nodes.size();
+        if (size == 0) {
+            return start;
+        }
+        Node first = nodes.get(0);
+        Node last = nodes.get(size - 1);
+        if (size > 1 && first.getX() == last.getX() && first.getY() == last.getY()) {
+            size--;
+        }
+        for (int i = 0; i < size; i++) {
+            this.xs[start + i] = nodes.get(i).getX();
+            this.ys[start + i] = nodes.get(i).getY();
+        }
+        return start + size;
+    }
+}
@@ -0,0 +1,182 @@
+package com.structuralengineering.rcbeam.properties;
+
+import com.structuralengineering.rcbeam.utils.PolygonIntegrator;
+
+/**
+ * Immutable snapshot of a section with its geometric invariants computed once.
+ *
+ * A Section recomputes its centroid, extreme elevations and moment of
+ * inertia on every call. A PreparedSection computes them when it is built and only reads them
+ * afterwards, so it can be shared between threads and reused across any
+ * number of analyses of the same geometry. Later changes to the Section
+ * are not seen by a PreparedSection built from it.
+ */
+public final class PreparedSection {
+    private final PackedPolygon polygon;                // Packed main section and clippings
+    private final SectionWidthProfile widthProfile;     // Width, area and moment tables
+    private final double area;                          // Gross area of concrete
+    private final double centroid;                      // Depth of the centroid from the top
+    private final double highestElevation;              // Elevation of the extreme top fiber
+    private final double lowestElevation;               // Elevation of the extreme bottom fiber
+    private final double momentOfInertia;               // Ix about the horizontal centroidal axis
+
+    /**
+     * Prepares a section for analysis.
+     *
+     * @param section Section to take the geometry from.
+     * @throws IllegalArgumentException if the section has no valid main polygon
+     *                                  or its clippings leave no area.
+     */
+    public PreparedSection(Section section) {
+        // The packed arrays and profile of a Section are replaced, never modified,
+        // when its geometry changes, so they can be shared with the snapshot.
+        this(requireMainSection(section).getPackedPolygon(), section.getWidthProfile());
+    }
+
+    /**
+     * Prepares packed polygons for analysis, without building Node lists.
+     * The arrays of the polygon are shared, not copied.
+     *
+     * @param polygon Packed main section and clippings.
+     * @throws IllegalArgumentException if the main polygon has fewer than
+     *                                  3 nodes or its clippings leave no area.
+     */
+    public PreparedSection(PackedPolygon polygon) {
+        this(polygon, new SectionWidthProfile(requireMainRing(polygon)));
+    }
+
+    private PreparedSection(PackedPolygon polygon, SectionWidthProfile widthProfile) {
+        this.polygon = polygon;
+        this.widthProfile = widthProfile;
+        this.highestElevation = this.widthProfile.getHighestElevation();
+        this.lowestElevation = this.widthProfile.getLowestElevation();
+        this.area = this.widthProfile.areaAbove(this.lowestElevation);
+        if (!(this.area > 0)) {
+            throw new IllegalArgumentException("Invalid setting of section polygons.");
+        }
+        this.centroid = this.widthProfile.momentAbove(this.lowestElevation) / this.area;
+        this.momentOfInertia = PolygonIntegrator.bandMoments(this.polygon,
+                this.lowestElevation,
+                this.highestElevation,
+                this.highestElevation - this.centroid)[2];
+    }
+
+    // = = = = = = = = = = = = = = = = = = = = = =
+    //
+    // Getters
+    //
+    // = = = = = = = = = = = = = = = = = = = = = =
+
+    public PackedPolygon getPackedPolygon() {
+        return polygon;
+    }
+
+    public SectionWidthProfile getWidthProfile() {
+        return widthProfile;
+    }
+
+    /**
+     * Gross area of concrete, deducting all hollow polygons.
+     *
+     * @return area
+     */
+    public double getArea() {
+        return area;
+    }
+
+    /**
+     * Distance of the centroid of the section from the topmost node.
+     *
+     * @return centroid depth
+     */
+    public double getCentroid() {
+        return centroid;
+    }
+
+    public double getHeight() {
+        return highestElevation - lowestElevation;
+    }
+
+    public double getHighestElevation() {
+        return highestElevation;
+    }
+
+    public double getLowestElevation() {
+        return lowestElevation;
+    }
+
+    public double getNeutralAxisElevation() {
+        return highestElevation - centroid;
+    }
+
+    /**
+     * Moment of inertia about the horizontal axis through the centroid.
+     *
+     * @return Ix
+     */
+    public double getMomentOfInertia() {
+        return momentOfInertia;
+    }
+
+    // = = = = = = = = = = = = = = = = = = = = = =
+    //
+    // Methods
+    //
+    // = = = = = = = = = = = = = = = = = = = = = =
+
+    /**
+     * Effective width at a certain elevation, deducting all hollow polygons.
+     *
+     * @param elevation Point where effective width is being looked at.
+     * @return width
+     */
+    public double getEffectiveWidth(double elevation) {
+        return widthProfile.width(elevation);
+    }
+
+    /**
+     * Area of the section above an elevation.
+     *
+     * @param yElev Cutting elevation.
+     * @return area
+     */
+    public double areaAboveAxis(double yElev) {
+        return widthProfile.areaAbove(yElev);
+    }
+
+    /**
+     * Depth from the top of the centroid of the area above an elevation.
+     *
+     * @param yElev Cutting elevation.
+     * @return centroid depth
+     */
+    public double centroidAboveAxis(double yElev) {
+        return widthProfile.momentAbove(yElev) / widthProfile.areaAbove(yElev);
+    }
+
+    /**
+     * Area moments of the section between two elevations.
+     *
+     * @param yLo  Lower elevation of the band.
+     * @param yHi  Upper elevation of the band.
+     * @param yRef Elevation about which the moments are taken.
+     * @return Array consisting of the area, first moment and second moment about yRef.
+     */
+    public double[] bandMoments(double yLo, double yHi, double yRef) {
+        return PolygonIntegrator.bandMoments(polygon, yLo, yHi, yRef);
+    }
+
+    private static Section requireMainSection(Section section) {
+        if (section.getMainSection().size() < 3) {
+            throw new IllegalArgumentException("Main section has invalid number of nodes or is not defined.");
+        }
+        return section;
+    }
+
+    private static PackedPolygon requireMainRing(PackedPolygon polygon) {
+        if (polygon.getRingEnd(0) - polygon.getRingStart(0) < 3) {
+            throw new IllegalArgumentException("Main section has invalid number of nodes or is not defined.");
+        }
+        return polygon;
+    }
+}
@@ -1,13 +1,27 @@
 package com.structuralengineering.rcbeam.properties;
 
 import com.structuralengineering.rcbeam.utils.Calculators;
+import com.structuralengineering.rcbeam.utils.PolygonIntegrator;
 
 import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * Concrete section made of a main polygon and hollow clipping polygons.
+ *
+ * The geometry is validated whenever it is set, and the outcome is kept for
+ * hasError and getErrMessage. Reading the section never changes that state,
+ * so one section can be read by many threads at once as long as nobody
+ * modifies it. The coordinates of the nodes are copied when the geometry is
+ * set, and every read works from that copy. A Node moved, or a list changed,
+ * afterwards is not seen until the geometry is set again. The width profile
+ * is built on the first read after a change and then only read.
+ */
 public class Section {
     private List<Node> mainSection;
     private List<List<Node>> clippings;
+    private PackedPolygon packedPolygon;                        // Coordinates copied when the geometry was set
+    private volatile SectionWidthProfile widthProfile;          // Cached, cleared when geometry changes
     private double area;
     private boolean hasError;
     private String errMessage;
@@ -18,19 +32,32 @@ public class Section {
     public Section() {
         mainSection = new ArrayList<>();
         clippings = new ArrayList<>();
+        packedPolygon = new PackedPolygon(mainSection, clippings);
         hasError = false;
         errMessage = "";
     }
 
+    /**
+     * Constructor that sets and validates the whole geometry at once.
+     * @param mainSection Main polygon.
+     * @param clippings Hollow polygons, may be empty.
+     * @throws IllegalArgumentException if the polygons do not form a valid section.
+     */
+    public Section(List<Node> mainSection, List<List<Node>> clippings) {
+        this();
+        if (!setMainSection(mainSection) || !setClippings(clippings)) {
+            throw new IllegalArgumentException(this.errMessage);
+        }
+    }
+
     public boolean setMainSection(List<Node> mainSection) {
         // Check number of nodes
         if (mainSection.size() < 3) {
             errorOccured("Invalid polygon. Too few nodes.");
             return false;
         } else {
-            noError();
             this.mainSection = mainSection;
-            return true;
+            return geometryChanged();
         }
     }
 
@@ -44,11 +71,10 @@ public class Section {
             if (clipping.size() < 3) {
                 errorOccured("One of more clipping polygon has too few nodes.");
                 return false;
-            } else {
-                noError();
             }
         }
-        return true;
+        this.clippings = new ArrayList<>(clippings);
+        return geometryChanged();
     }
 
     public boolean addClipping(List<Node> clipping) {
@@ -56,9 +82,8 @@ public class Section {
             errorOccured("Invalid polygon. Too few nodes.");
             return false;
         } else {
-            noError();
             this.clippings.add(clipping);
-            return true;
+            return geometryChanged();
         }
     }
 
@@ -67,124 +92,103 @@ public class Section {
             errorOccured("The index may not exist.");
             return false;
         } else {
-            noError();
             this.clippings.remove(index);
-            return true;
+            return geometryChanged();
         }
     }
 
+    /**
+     * Whether the last change of geometry was rejected or left an invalid section.
+     * @return true if there is an error.
+     */
+    public boolean hasError() {
+        return hasError;
+    }
+
+    /**
+     * Outcome of the last change of geometry.
+     * @return error message, or "Success".
+     */
+    public String getErrMessage() {
+        return errMessage;
+    }
+
+    /**
+     * Gross area of concrete as validated by the last change of geometry.
+     * @return area, or 0 if the section is invalid
+     */
     public double getArea() {
-        noError();
         return area;
     }
 
     public double getHeight() {
-        noError();
-        return Calculators.highestY(this.mainSection) - Calculators.lowestY(this.mainSection);
+        PackedPolygon polygon = getPackedPolygon();
+        return Calculators.highestY(polygon.getYs(), 0, polygon.getRingEnd(0)) -
+                Calculators.lowestY(polygon.getYs(), 0, polygon.getRingEnd(0));
     }
 
     public double getNeutralAxisElevation() {
-        noError();
-        return Calculators.highestY(this.mainSection) - centroid();
+        PackedPolygon polygon = getPackedPolygon();
+        return Calculators.highestY(polygon.getYs(), 0, polygon.getRingEnd(0)) - centroid();
     }
 
     public List<Node> getMainSection() {
-        noError();
         return mainSection;
     }
 
     /**
      * Get the effective width of a section at a certain elevation
-     * deducting all hollow polygons.
+     * deducting all hollow polygons. Read from the width profile
+     * by binary search.
      * @param elevation Point where effective width is being looked at.
      * @return width Effective width.
      */
     public double getEffectiveWidth(double elevation) {
-        double width;
-        List<Node> mainSectionIntersections = new ArrayList<>();
-        List<List<Node>> clippingsIntersections = new ArrayList<>();
-
-        // Find intersections at the main section
-        for (int i = 1; i < this.mainSection.size(); i++) {
-            if (Calculators.hasIntersected(elevation, this.mainSection.get(i - 1), this.mainSection.get(i))) {
-                Node intersection = Calculators.getIntersection(elevation,
-                        this.mainSection.get(i - 1),
-                        this.mainSection.get(i));
-                mainSectionIntersections.add(intersection);
-            }
-        }
-        if (mainSectionIntersections.size() != 2) {
-            width = 0;
-            return width;
-        } else {
-            // Width of the main section
-            width = Calculators.distanceBetweenTwoNodes(mainSectionIntersections.get(0),
-                    mainSectionIntersections.get(1));
-        }
-
-        // For intersections at clippings
-        List<Node> clipIntersection = new ArrayList<>();
-
-        // Collect all the clippings
-        for (List<Node> clip : this.clippings) {
-            clipIntersection.clear();
-            for (int i = 1; i < clip.size(); i++) {
-                if (Calculators.hasIntersected(elevation, clip.get(i - 1), clip.get(i))) {
-                    Node intersection = Calculators.getIntersection(elevation,
-                            clip.get(i - 1), clip.get(i));
-                    clipIntersection.add(intersection);
-                }
-            }
-            clippingsIntersections.add(clipIntersection);
-        }
+        return getWidthProfile().width(elevation);
+    }
 
-        // Deduct total width of holes.
-        for (List<Node> clips : clippingsIntersections) {
-            if (clips.size() > 2) {
-                // Too much intersections. Should be limited to 2
-                errorOccured("Invalid clipping polygon.");
-                break;
-            } else if (clips.size() == 2) {
-                width -= Calculators.distanceBetweenTwoNodes(clips.get(0), clips.get(1));
-            }
+    /**
+     * Width of the section tabulated at every vertex elevation.
+     * The profile is rebuilt only after the geometry has changed.
+     * @return SectionWidthProfile
+     */
+    public SectionWidthProfile getWidthProfile() {
+        SectionWidthProfile profile = this.widthProfile;
+        if (profile == null) {
+            profile = new SectionWidthProfile(this.packedPolygon);
+            this.widthProfile = profile;
         }
+        return profile;
+    }
 
-        noError();
-        return width;
+    /**
+     * Main section and clippings packed into coordinate arrays, as copied
+     * by the last change of geometry.
+     * @return PackedPolygon
+     */
+    public PackedPolygon getPackedPolygon() {
+        return packedPolygon;
     }
 
     /**
      * Calculates area of the section deducting all hollow sections.
-     * @return area
+     * @return area, or 0 if the section is invalid
      */
     public double grossAreaOfConcrete() {
         double area;
 
         // Check if mainSection is available
-        if (this.mainSection.size() < 3) {
-            errorOccured("Main section has invalid number of nodes or is not defined.");
+        if (this.packedPolygon.getRingEnd(0) < 3) {
             return 0;
         }
 
-        double mainArea;
-        mainArea = Calculators.calculateArea(this.mainSection);
-
-        double clippingAreas = 0;
-        for (List<Node> clip : this.clippings) {
-            clippingAreas += Calculators.calculateArea(clip);
-        }
-
-        area = mainArea - clippingAreas;
+        area = netArea();
 
         // Check for validity of main and clipping sections
         if (area < 0) {
-            errorOccured("Invalid setting of section polygons.");
             return 0;
         }
 
-        this.hasError = false;
-        this.errMessage = "Success";
-        this.area = area;
         return area;
     }
 
@@ -196,17 +200,26 @@ public class Section {
     public double centroid() {
         double kd;
 
+        PackedPolygon polygon = getPackedPolygon();
+        double[] xs = polygon.getXs();
+        double[] ys = polygon.getYs();
+        int mainEnd = polygon.getRingEnd(0);
+
         // For the main section
-        double maMain = Calculators.calculateCentroidY(this.mainSection) * Calculators.calculateArea(this.mainSection);
+        double maMain = Calculators.calculateCentroidY(xs, ys, 0, mainEnd) *
+                Calculators.calculateArea(xs, ys, 0, mainEnd);
 
         // For each clipping
-        double highestPoint = Calculators.highestY(this.mainSection);
+        double highestPoint = Calculators.highestY(ys, 0, mainEnd);
         double maClippings = 0;
         double clipHighestPoint;
-        for (List<Node> clipping : this.clippings) {
-            clipHighestPoint = Calculators.highestY(clipping);
-            maClippings += Calculators.calculateArea(clipping) *
-                    (Calculators.calculateCentroidY(clipping) +
+        int from, to;
+        for (int r = 1; r < polygon.getRingCount(); r++) {
+            from = polygon.getRingStart(r);
+            to = polygon.getRingEnd(r);
+            clipHighestPoint = Calculators.highestY(ys, from, to);
+            maClippings += Calculators.calculateArea(xs, ys, from, to) *
+                    (Calculators.calculateCentroidY(xs, ys, from, to) +
                             (highestPoint - clipHighestPoint));
         }
 
@@ -214,48 +227,87 @@ public class Section {
         double grossArea = grossAreaOfConcrete();
         kd = (maMain - maClippings) / grossArea;
 
-        noError();
         return kd;
     }
 
+    /**
+     * Area of the section above an elevation, deducting all hollow polygons.
+     * Read from the cumulative area table of the cached width profile, by a
+     * binary search and one polynomial, without rebuilding the table.
+     * @param yElev Cutting elevation.
+     * @return area
+     */
     public double areaAboveAxis(double yElev) {
-        double area;
+        return getWidthProfile().areaAbove(yElev);
+    }
 
-        double mainSectionArea = Calculators.getAreaAboveAxis(yElev, this.mainSection);
-        double clippingAreas = 0;
-        for (List<Node> clipping : this.clippings) {
-            clippingAreas += Calculators.getAreaAboveAxis(yElev, clipping);
-        }
+    /**
+     * Depth from the topmost node of the centroid of the area above an
+     * elevation, deducting all hollow polygons. Read from the cumulative
+     * area and moment tables of the cached width profile.
+     * @param yElev Cutting elevation.
+     * @return kd
+     */
+    public double centroidAboveAxis(double yElev) {
+        SectionWidthProfile profile = getWidthProfile();
+        return profile.momentAbove(yElev) / profile.areaAbove(yElev);
+    }
 
-        area = mainSectionArea - clippingAreas;
+    /**
+     * Area moments of the section between two elevations, deducting
+     * all hollow polygons.
+     * @param yLo Lower elevation of the band.
+     * @param yHi Upper elevation of the band.
+     * @param yRef Elevation about which the moments are taken.
+     * @return Array consisting of the area, first moment and second moment about yRef.
+     */
+    public double[] bandMoments(double yLo, double yHi, double yRef) {
+        return PolygonIntegrator.bandMoments(getPackedPolygon(), yLo, yHi, yRef);
+    }
 
+    /**
+     * Copies the coordinates of the new geometry and validates them,
+     * recording the outcome for hasError.
+     * @return true if the section is valid or has no main section yet.
+     */
+    private boolean geometryChanged() {
+        this.packedPolygon = new PackedPolygon(this.mainSection, this.clippings);
+        this.widthProfile = null;
+        this.area = 0;
+        if (this.mainSection.size() < 3) {
+            noError();
+            return true;
+        }
+
+        double area = netArea();
+        if (area < 0) {
+            errorOccured("Invalid setting of section polygons.");
+            return false;
+        }
+        this.area = area;
         noError();
-        return area;
+        return true;
     }
 
-    public double centroidAboveAxis(double yElev) {
-        double kd;
-
-        double maMainSection, mainSectionArea, mainY;
-        double maClippingSections = 0, clippingSectionAreas = 0;
+    /**
+     * Area of the main section minus the areas of all clippings, negative
+     * if the clippings are larger than the main section.
+     * @return area
+     */
+    private double netArea() {
+        PackedPolygon polygon = getPackedPolygon();
+        double[] xs = polygon.getXs();
+        double[] ys = polygon.getYs();
 
-        mainY = Calculators.getCentroidAboveAxis(yElev, this.mainSection);
-        mainSectionArea = Calculators.getAreaAboveAxis(yElev, this.mainSection);
-        maMainSection = mainY * mainSectionArea;
+        double mainArea;
+        mainArea = Calculators.calculateArea(xs, ys, polygon.getRingStart(0), polygon.getRingEnd(0));
 
-        for (List<Node> clipping : this.clippings) {
-            double area, y;
-            area = Calculators.getAreaAboveAxis(yElev, clipping);
-            y = Calculators.getCentroidAboveAxis(yElev, clipping) +
-                    Calculators.highestY(this.mainSection) - Calculators.highestY(clipping);
-            clippingSectionAreas += area;
-            maClippingSections += area * y;
+        double clippingAreas = 0;
+        for (int r = 1; r < polygon.getRingCount(); r++) {
+            clippingAreas += Calculators.calculateArea(xs, ys, polygon.getRingStart(r), polygon.getRingEnd(r));
         }
 
-        kd = (maMainSection - maClippingSections) / (mainSectionArea - clippingSectionAreas);
-
-        noError();
-        return kd;
+        return mainArea - clippingAreas;
     }
 
     private void noError() {
@@ -0,0 +1,260 @@
+package com.structuralengineering.rcbeam.properties;
+
+import java.util.Arrays;
+
+/**
+ * Effective width of a section as a function of elevation.
+ *
+ * The width of a polygon is linear between consecutive vertex elevations,
+ * so it is tabulated once at every vertex elevation of the main section and
+ * its clippings. A query is then a binary search plus one multiply-add.
+ * The area above each breakpoint and its first moment are accumulated too,
+ * so the area and centroid above any elevation are a binary search plus a
+ * polynomial evaluation.
+ */
+public class SectionWidthProfile {
+    private final double[] elevations;                  // Sorted distinct vertex elevations
+    private final double[] widths;                      // Width just above each elevation
+    private final double[] slopes;                      // Change of width per unit elevation
+    private final double[] areasAbove;                  // Area above each elevation
+    private final double[] momentsAbove;                // First moment of areasAbove about the top
+
+    /**
+     * Builds the profile of a main section minus its clippings.
+     *
+     * @param polygon Packed main section and clippings.
+     */
+    public SectionWidthProfile(PackedPolygon polygon) {
+        // Collect the distinct vertex elevations
+        int count = polygon.getVertexCount();
+        double[] ys = Arrays.copyOf(polygon.getYs(), count);
+        Arrays.sort(ys);
+        int n = 0;
+        for (int i = 0; i < count; i++) {
+            if (i == 0 || ys[i] != ys[n - 1]) {
+                ys[n++] = ys[i];
+            }
+        }
+        this.elevations = Arrays.copyOf(ys, n);
+        this.widths = new double[n];
+        this.slopes = new double[n];
+
+        // Width is linear within each interval
+        double yLo, yHi, yMid, bLo, bHi;
+        for (int k = 0; k < n - 1; k++) {
+            yLo = this.elevations[k];
+            yHi = this.elevations[k + 1];
+            yMid = 0.5 * (yLo + yHi);
+            bLo = ringWidth(polygon, 0, yMid, yLo);
+            bHi = ringWidth(polygon, 0, yMid, yHi);
+            for (int r = 1; r < polygon.getRingCount(); r++) {
+                bLo -= ringWidth(polygon, r, yMid, yLo);
+                bHi -= ringWidth(polygon, r, yMid, yHi);
+            }
+            this.widths[k] = bLo;
+            this.slopes[k] = (bHi - bLo) / (yHi - yLo);
+        }
+
+        // Accumulate area and first moment from the top down
+        this.areasAbove = new double[n];
+        this.momentsAbove = new double[n];
+        for (int k = n - 2; k >= 0; k--) {
+            this.areasAbove[k] = this.areasAbove[k + 1] + partialArea(k, this.elevations[k]);
+            this.momentsAbove[k] = this.momentsAbove[k + 1] + partialMoment(k, this.elevations[k]);
+        }
+    }
+
+    // = = = = = = = = = = = = = = = = = = = = = =
+    //
+    // Getters
+    //
+    // = = = = = = = = = = = = = = = = = = = = = =
+
+    /**
+     * Number of tabulated elevations.
+     *
+     * @return Number of breakpoints.
+     */
+    public int getBreakpointCount() {
+        return elevations.length;
+    }
+
+    /**
+     * Elevation of the kth breakpoint, in ascending order.
+     *
+     * @param k Breakpoint index.
+     * @return Elevation.
+     */
+    public double getElevation(int k) {
+        return elevations[k];
+    }
+
+    public double getLowestElevation() {
+        return elevations[0];
+    }
+
+    public double getHighestElevation() {
+        return elevations[elevations.length - 1];
+    }
+
+    // = = = = = = = = = = = = = = = = = = = = = =
+    //
+    // Methods
+    //
+    // = = = = = = = = = = = = = = = = = = = = = =
+
+    /**
+     * Effective width at a certain elevation. At a breakpoint where the width
+     * jumps, the width just above the breakpoint is returned, except at the
+     * top of the section.
+     *
+     * @param elevation Point where effective width is being looked at.
+     * @return width Effective width.
+     */
+    public double width(double elevation) {
+        int last = elevations.length - 1;
+        if (last < 1 || elevation < elevations[0] || elevation > elevations[last]) {
+            return 0;
+        }
+        int k = interval(elevation);
+        return widths[k] + slopes[k] * (elevation - elevations[k]);
+    }
+
+    /**
+     * Area of the section above an elevation.
+     *
+     * @param elevation Cutting elevation.
+     * @return Area above the elevation.
+     */
+    public double areaAbove(double elevation) {
+        int last = elevations.length - 1;
+        if (last < 1 || elevation >= elevations[last]) {
+            return 0;
+        }
+        if (elevation <= elevations[0]) {
+            return areasAbove[0];
+        }
+        int k = interval(elevation);
+        return areasAbove[k + 1] + partialArea(k, elevation);
+    }
+
+    /**
+     * First moment of the area above an elevation, taken about the top of
+     * the section. Dividing by areaAbove gives the depth of its centroid.
+     *
+     * @param elevation Cutting elevation.
+     * @return First moment about the top.
+     */
+    public double momentAbove(double elevation) {
+        int last = elevations.length - 1;
+        if (last < 1 || elevation >= elevations[last]) {
+            return 0;
+        }
+        if (elevation <= elevations[0]) {
+            return momentsAbove[0];
+        }
+        int k = interval(elevation);
+        return momentsAbove[k + 1] + partialMoment(k, elevation);
+    }
+
+    /**
+     * Elevation above which the section has a given area, the inverse of
+     * areaAbove. The area is quadratic in the elevation within an interval,
+     * so the interval is found by binary search and the quadratic solved.
+     *
+     * @param area Area above the elevation sought.
+     * @return Cutting elevation.
+     */
+    public double elevationForAreaAbove(double area) {
+        int last = elevations.length - 1;
+        if (last < 1 || area <= 0) {
+            return elevations[last];
+        }
+        if (area >= areasAbove[0]) {
+            return elevations[0];
+        }
+
+        // areasAbove decreases with k, find k with areasAbove[k] >= area > areasAbove[k + 1]
+        int lo = 0, hi = last - 1, mid;
+        while (lo < hi) {
+            mid = (lo + hi + 1) >>> 1;
+            if (areasAbove[mid] >= area) {
+                lo = mid;
+            } else {
+                hi = mid - 1;
+            }
+        }
+
+        // Solve slopes/2 u^2 + widths u = c for the offset u above elevations[lo]
+        double u1 = elevations[lo + 1] - elevations[lo];
+        double c = widths[lo] * u1 + slopes[lo] * u1 * u1 / 2 - (area - areasAbove[lo + 1]);
+        double root = Math.sqrt(Math.max(0, widths[lo] * widths[lo] + 2 * slopes[lo] * c));
+        double u = widths[lo] + root > 0 ? 2 * c / (widths[lo] + root) : 0;
+        return elevations[lo] + Math.max(0, Math.min(u1, u));
+    }
+
+    /**
+     * Area of interval k between an elevation and the top of the interval.
+     */
+    private double partialArea(int k, double elevation) {
+        double u0 = elevation - elevations[k];
+        double u1 = elevations[k + 1] - elevations[k];
+        return widths[k] * (u1 - u0) + slopes[k] * (u1 * u1 - u0 * u0) / 2;
+    }
+
+    /**
+     * First moment about the top of the section of interval k, between an
+     * elevation and the top of the interval.
+     */
+    private double partialMoment(int k, double elevation) {
+        double u0 = elevation - elevations[k];
+        double u1 = elevations[k + 1] - elevations[k];
+        double c = elevations[elevations.length - 1] - elevations[k];         // Depth of elevations[k]
+        return c * widths[k] * (u1 - u0)
+                + (c * slopes[k] - widths[k]) * (u1 * u1 - u0 * u0) / 2
+                - slopes[k] * (u1 * u1 * u1 - u0 * u0 * u0) / 3;
+    }
+
+    /**
+     * Index of the interval containing the elevation.
+     *
+     * @param elevation Elevation within the profile.
+     * @return k such that elevation lies in [elevations[k], elevations[k+1]).
+     */
+    public int interval(double elevation) {
+        int lo = 0, hi = elevations.length - 2, mid;
+        while (lo < hi) {
+            mid = (lo + hi + 1) >>> 1;
+            if (elevations[mid] <= elevation) {
+                lo = mid;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Width of one polygon at an elevation, using the edges that cross a
+     * reference elevation inside the same interval.
+     *
+     * Edges alternate direction across a horizontal line, so the signed sum
+     * of the crossing abscissas is the total width inside the polygon.
+     */
+    private static double ringWidth(PackedPolygon polygon, int ring, double yCross, double elevation) {
+        double[] xs = polygon.getXs();
+        double[] ys = polygon.getYs();
+        int from = polygon.getRingStart(ring);
+        int to = polygon.getRingEnd(ring);
+        double sum = 0, x;
+        int j;
+        for (int i = from; i < to; i++) {
+            j = i + 1 < to ? i + 1 : from;
+            if ((ys[i] < yCross && ys[j] > yCross) || (ys[i] > yCross && ys[j] < yCross)) {
+                x = xs[i] + (xs[j] - xs[i]) * (elevation - ys[i]) / (ys[j] - ys[i]);
+                sum += ys[j] > ys[i] ? x : -x;
+            }
+        }
+        return Math.abs(sum);
+    }
+}
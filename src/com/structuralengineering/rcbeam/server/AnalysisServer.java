@@ -0,0 +1,515 @@
+package com.structuralengineering.rcbeam.server;
+
+import com.structuralengineering.rcbeam.analysis.AnalysisSettings;
+import com.structuralengineering.rcbeam.analysis.AnalysisType;
+import com.structuralengineering.rcbeam.analysis.BeamAnalysisEngine;
+import com.structuralengineering.rcbeam.analysis.BeamAnalysisResult;
+import com.structuralengineering.rcbeam.analysis.StressDistribution;
+import com.structuralengineering.rcbeam.io.Json;
+import com.structuralengineering.rcbeam.io.RecordFormat;
+import com.structuralengineering.rcbeam.io.ResultWriter;
+import com.structuralengineering.rcbeam.io.SectionReader;
+import com.structuralengineering.rcbeam.io.SectionRecord;
+import com.structuralengineering.rcbeam.properties.PreparedSection;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Embedded HTTP service for the beam analyses, on the JDK's built-in server.
+ *
+ * POST /analyze takes one section record in the JSON Lines format of
+ * SectionReader, a JSON array of records, or several records as JSON Lines,
+ * and answers with one JSON Lines result per record, in request order. The
+ * query parameters analyses (default uncracked,balanced,capacity) and
+ * distribution (default whitney) select what is computed. GET /health
+ * answers "ok".
+ *
+ * Each request is handled on its own thread, a virtual thread when the
+ * runtime has them and a pooled platform thread otherwise, so a slow client
+ * holds no CPU. The sections of all requests go to one batcher, which cuts
+ * them into batches of BATCH_SECTIONS sections for a fixed pool of CPU
+ * threads. Sections arriving within BATCH_WINDOW_MICROS of each other share
+ * a batch, so many concurrent single-section requests cost a few pool tasks
+ * rather than one each, and a large request is spread over all threads.
+ * Once maxQueued sections are waiting for analysis, further requests are
+ * refused with 503 instead of piling up. All requests share one engine and
+ * stay in one warm JVM.
+ */
+public class AnalysisServer {
+    static final int BATCH_SECTIONS = 64;                       // Sections per CPU task
+    static final long BATCH_WINDOW_MICROS = 500;                // Wait for other requests to fill a batch
+
+    // = = = = = = = = = = = = = = = = = = = = = =
+    //
+    // Properties
+    //
+    // = = = = = = = = = = = = = = = = = = = = = =
+    private final HttpServer server;
+    private final ExecutorService requestExecutor;              // One thread per request
+    private final ThreadPoolExecutor cpuExecutor;               // Fixed pool for the analyses
+    private final ScheduledExecutorService batchTimer;          // Flushes partly filled batches
+    private final BeamAnalysisEngine engine;
+    private final int maxQueued;                                // Sections waiting before requests are refused
+    private final int maxBatchSize;                             // Sections accepted per request
+    private final int maxBodyBytes;                             // Request body limit
+    private final AtomicInteger queued = new AtomicInteger();   // Sections accepted and not yet analyzed
+    private final ArrayDeque<Slice> unbatched = new ArrayDeque<>(); // Sections waiting for a batch, guarded by itself
+    private int unbatchedSections;
+    private boolean flushScheduled;
+
+    /**
+     * Constructor that binds the server without starting it.
+     *
+     * @param port         Port to listen on, 0 for any free port
+     * @param cpuThreads   Threads analyzing sections, at least 1
+     * @param maxQueued    Sections that may wait for analysis before requests are refused
+     * @param maxBatchSize Sections accepted in one request
+     * @param settings     Settings of the shared engine
+     * @throws IOException if the port cannot be bound
+     */
+    public AnalysisServer(int port,
+                          int cpuThreads,
+                          int maxQueued,
+                          int maxBatchSize,
+                          AnalysisSettings settings) throws IOException {
+        if (cpuThreads < 1 || maxQueued < 1 || maxBatchSize < 1) {
+            throw new IllegalArgumentException("Threads, queue and batch sizes must be at least 1.");
+        }
+        this.engine = new BeamAnalysisEngine(settings);
+        this.maxQueued = maxQueued;
+        this.maxBatchSize = maxBatchSize;
+        this.maxBodyBytes = 64 * 1024 * 1024;
+        // Unbounded queue: admission is bounded by maxQueued sections instead
+        this.cpuExecutor = new ThreadPoolExecutor(cpuThreads, cpuThreads, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), daemonThreads("rcbeam-analysis-"));
+        this.batchTimer = Executors.newSingleThreadScheduledExecutor(daemonThreads("rcbeam-batcher-"));
+        this.requestExecutor = perRequestExecutor();
+        this.server = HttpServer.create(new InetSocketAddress(port), 0);
+        this.server.setExecutor(this.requestExecutor);
+        this.server.createContext("/analyze", this::handleAnalyze);
+        this.server.createContext("/health", exchange -> respond(exchange, 200, "text/plain", "ok\n"));
+    }
+
+    /**
+     * Runs a server until the process is stopped.
+     * Arguments: [port] [cpu threads].
+     *
+     * @param args Command line arguments
+     * @throws IOException if the port cannot be bound
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8080;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        AnalysisServer server = new AnalysisServer(port, threads, 100000, 10000, new AnalysisSettings());
+        server.start();
+        System.out.println("Listening on port " + server.getPort());
+    }
+
+    // = = = = = = = = = = = = = = = = = = = = = =
+    //
+    // Getters
+    //
+    // = = = = = = = = = = = = = = = = = = = = = =
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    // = = = = = = = = = = = = = = = = = = = = = =
+    //
+    // Methods
+    //
+    // = = = = = = = = = = = = = = = = = = = = = =
+
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Stops accepting requests, waits up to the given delay for the open
+     * ones, and shuts the executors down.
+     *
+     * @param delaySeconds Seconds to wait for open requests
+     */
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        requestExecutor.shutdownNow();
+        batchTimer.shutdownNow();
+        cpuExecutor.shutdownNow();
+    }
+
+    private void handleAnalyze(HttpExchange exchange) throws IOException {
+        try {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().set("Allow", "POST");
+                respond(exchange, 405, "text/plain", "Use POST.\n");
+                return;
+            }
+            AnalysisType[] types = AnalysisType.values();
+            StressDistribution sd = StressDistribution.WHITNEY;
+            String query = exchange.getRequestURI().getRawQuery();
+            if (query != null) {
+                for (String parameter : query.split("&")) {
+                    int eq = parameter.indexOf('=');
+                    String name = eq < 0 ? parameter : parameter.substring(0, eq);
+                    String value = eq < 0 ? "" : URLDecoder.decode(parameter.substring(eq + 1), "UTF-8");
+                    if (name.equals("analyses")) {
+                        List<AnalysisType> requested = new ArrayList<>();
+                        for (String type : value.split(",")) {
+                            requested.add(AnalysisType.valueOf(type.trim().toUpperCase(Locale.ROOT)));
+                        }
+                        types = requested.toArray(new AnalysisType[0]);
+                    } else if (name.equals("distribution")) {
+                        sd = StressDistribution.valueOf(value.trim().toUpperCase(Locale.ROOT));
+                    }
+                }
+            }
+
+            String body = readBody(exchange.getRequestBody());
+            if (body == null) {
+                respond(exchange, 413, "text/plain", "Request body is too large.\n");
+                return;
+            }
+            List<SectionRecord> records = parseRecords(body, maxBatchSize);
+            if (records == null) {
+                respond(exchange, 413, "text/plain", "At most " + maxBatchSize + " sections per request.\n");
+                return;
+            }
+
+            String results = analyze(records, sd, types);
+            if (results == null) {
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                respond(exchange, 503, "text/plain", "Server is busy.\n");
+                return;
+            }
+            respond(exchange, 200, "application/x-ndjson", results);
+        } catch (IllegalArgumentException e) {
+            // Malformed query or body
+            respond(exchange, 400, "text/plain", e.getMessage() + "\n");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            respond(exchange, 503, "text/plain", "Server is stopping.\n");
+        } catch (RuntimeException e) {
+            respond(exchange, 500, "text/plain", "Analysis failed: " + e.getMessage() + "\n");
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Analyzes the records of one request in the shared batches and waits
+     * for them.
+     *
+     * @return JSON Lines of the results, or null if too many sections are waiting
+     */
+    private String analyze(List<SectionRecord> records, StressDistribution sd, AnalysisType[] types)
+            throws InterruptedException {
+        int count = records.size();
+        // Admit a request into an empty queue whatever its size, so it cannot be refused forever
+        int before = queued.getAndAdd(count);
+        if (before > 0 && before + count > maxQueued) {
+            queued.addAndGet(-count);
+            return null;
+        }
+        Request request = new Request(records, sd, types);
+        if (count > 0) {
+            enqueue(new Slice(request, 0, count));
+            try {
+                request.done.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Analysis failed unexpectedly.", e.getCause());
+            }
+        }
+
+        StringWriter text = new StringWriter();
+        ResultWriter writer = new ResultWriter(text, RecordFormat.JSON_LINES, types);
+        try {
+            for (int i = 0; i < count; i++) {
+                if (request.errors[i] != null) {
+                    writer.writeError(records.get(i).getId(), request.errors[i]);
+                } else {
+                    writer.write(records.get(i).getId(), request.results[i]);
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Writing to a string failed.", e);
+        }
+        return text.toString();
+    }
+
+    /**
+     * Adds the sections of a request to the batcher. Full batches go to the
+     * CPU pool at once; the rest waits up to BATCH_WINDOW_MICROS for
+     * sections of other requests.
+     */
+    private void enqueue(Slice slice) {
+        synchronized (unbatched) {
+            unbatched.addLast(slice);
+            unbatchedSections += slice.to - slice.from;
+            while (unbatchedSections >= BATCH_SECTIONS) {
+                submitBatch();
+            }
+            if (unbatchedSections > 0 && !flushScheduled) {
+                flushScheduled = true;
+                try {
+                    batchTimer.schedule(this::flush, BATCH_WINDOW_MICROS, TimeUnit.MICROSECONDS);
+                } catch (RejectedExecutionException e) {
+                    flushScheduled = false;
+                    flush();                                    // Stopping, no window to wait for
+                }
+            }
+        }
+    }
+
+    private void flush() {
+        synchronized (unbatched) {
+            flushScheduled = false;
+            while (unbatchedSections > 0) {
+                submitBatch();
+            }
+        }
+    }
+
+    /**
+     * Takes up to BATCH_SECTIONS waiting sections, splitting a slice if
+     * needed, and submits them as one task. Called holding the lock.
+     */
+    private void submitBatch() {
+        List<Slice> batch = new ArrayList<>();
+        int size = 0;
+        while (size < BATCH_SECTIONS && !unbatched.isEmpty()) {
+            Slice slice = unbatched.removeFirst();
+            int take = Math.min(slice.to - slice.from, BATCH_SECTIONS - size);
+            if (take < slice.to - slice.from) {
+                unbatched.addFirst(new Slice(slice.request, slice.from + take, slice.to));
+                slice = new Slice(slice.request, slice.from, slice.from + take);
+            }
+            batch.add(slice);
+            size += take;
+        }
+        unbatchedSections -= size;
+        int batchSize = size;
+        try {
+            cpuExecutor.execute(() -> runBatch(batch, batchSize));
+        } catch (RejectedExecutionException e) {
+            queued.addAndGet(-batchSize);
+            for (Slice slice : batch) {
+                slice.request.done.completeExceptionally(e);
+            }
+        }
+    }
+
+    private void runBatch(List<Slice> batch, int size) {
+        try {
+            for (Slice slice : batch) {
+                Request request = slice.request;
+                try {
+                    analyzeSlice(request.records, slice.from, slice.to, request.sd, request.types,
+                            request.results, request.errors);
+                    request.finished(slice.to - slice.from);
+                } catch (RuntimeException | Error e) {
+                    request.done.completeExceptionally(e);
+                }
+            }
+        } finally {
+            queued.addAndGet(-size);
+        }
+    }
+
+    /**
+     * Analyzes records [from, to), storing each result or error at its index.
+     */
+    private void analyzeSlice(List<SectionRecord> records, int from, int to,
+                              StressDistribution sd, AnalysisType[] types,
+                              BeamAnalysisResult[][] results, String[] errors) {
+        for (int r = from; r < to; r++) {
+            SectionRecord record = records.get(r);
+            if (record.hasError()) {
+                errors[r] = record.getError();
+                continue;
+            }
+            try {
+                PreparedSection prepared = record.prepare();
+                BeamAnalysisResult[] analyses = new BeamAnalysisResult[types.length];
+                for (int i = 0; i < types.length; i++) {
+                    analyses[i] = engine.analyze(types[i], record.getBeamSection(), prepared, sd);
+                }
+                results[r] = analyses;
+            } catch (RuntimeException e) {
+                errors[r] = String.valueOf(e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Splits a request body into records: a JSON array, or JSON Lines.
+     * Parsing stops as soon as the limit is passed.
+     *
+     * @return records, or null if there are more than maxRecords
+     */
+    private static List<SectionRecord> parseRecords(String body, int maxRecords) {
+        List<SectionRecord> records = new ArrayList<>();
+        String trimmed = body.trim();
+        if (trimmed.isEmpty()) {
+            throw new IllegalArgumentException("Request body is empty.");
+        }
+        if (trimmed.startsWith("[")) {
+            try {
+                Json.parseArray(trimmed, element -> {
+                    if (records.size() == maxRecords) {
+                        throw new TooManyRecordsException();
+                    }
+                    records.add(SectionReader.fromJson(element, records.size() + 1));
+                });
+            } catch (TooManyRecordsException e) {
+                return null;
+            }
+            return records;
+        }
+        long lineNumber = 0;
+        int start = 0;
+        while (start < trimmed.length()) {
+            int end = trimmed.indexOf('\n', start);
+            if (end < 0) {
+                end = trimmed.length();
+            }
+            String line = trimmed.substring(start, end);
+            start = end + 1;
+            lineNumber++;
+            if (!line.trim().isEmpty()) {
+                if (records.size() == maxRecords) {
+                    return null;
+                }
+                records.add(SectionReader.parseJson(line, lineNumber));
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Reads the request body.
+     *
+     * @return body text, or null if it exceeds the size limit
+     */
+    private String readBody(InputStream in) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) >= 0) {
+            if (body.size() + read > maxBodyBytes) {
+                return null;
+            }
+            body.write(buffer, 0, read);
+        }
+        return new String(body.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String contentType, String text)
+            throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType + "; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * One virtual thread per task where the runtime supports it (JDK 21 and
+     * later), otherwise a cached pool of platform threads.
+     */
+    private static ExecutorService perRequestExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(daemonThreads("rcbeam-request-"));
+        }
+    }
+
+    /**
+     * Sections of one request being analyzed, with their results by index.
+     */
+    private static final class Request {
+        private final List<SectionRecord> records;
+        private final StressDistribution sd;
+        private final AnalysisType[] types;
+        private final BeamAnalysisResult[][] results;
+        private final String[] errors;
+        private final AtomicInteger remaining;                  // Sections not analyzed yet
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        Request(List<SectionRecord> records, StressDistribution sd, AnalysisType[] types) {
+            this.records = records;
+            this.sd = sd;
+            this.types = types;
+            this.results = new BeamAnalysisResult[records.size()][];
+            this.errors = new String[records.size()];
+            this.remaining = new AtomicInteger(records.size());
+        }
+
+        void finished(int sections) {
+            if (remaining.addAndGet(-sections) == 0) {
+                done.complete(null);
+            }
+        }
+    }
+
+    /**
+     * Records [from, to) of a request.
+     */
+    private static final class Slice {
+        private final Request request;
+        private final int from;
+        private final int to;
+
+        Slice(Request request, int from, int to) {
+            this.request = request;
+            this.from = from;
+            this.to = to;
+        }
+    }
+
+    /**
+     * Stops parsing a body that holds more records than allowed.
+     */
+    private static final class TooManyRecordsException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        TooManyRecordsException() {
+            super(null, null, false, false);
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
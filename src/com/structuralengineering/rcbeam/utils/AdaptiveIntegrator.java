@@ -0,0 +1,84 @@
+package com.structuralengineering.rcbeam.utils;
+
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Adaptive Simpson integration with Richardson extrapolation.
+ *
+ * An interval is halved until the two halves agree with the whole to within
+ * the tolerance, so the work follows the shape of the integrand instead of
+ * a fixed number of strips.
+ */
+public final class AdaptiveIntegrator {
+    private static final int MAX_DEPTH = 40;
+
+    private AdaptiveIntegrator() {
+    }
+
+    /**
+     * Integrates f(y) and f(y) * (y - a) over [a, b] in the same pass.
+     *
+     * @param f                 Integrand.
+     * @param a                 Lower limit.
+     * @param b                 Upper limit.
+     * @param relativeTolerance Relative tolerance on the integral of f.
+     * @return Array consisting of the integral, the first moment about a, the
+     * estimated absolute error of the integral and the number of evaluations of f.
+     */
+    public static double[] integrateWithMoment(DoubleUnaryOperator f,
+                                               double a,
+                                               double b,
+                                               double relativeTolerance) {
+        double[] result = new double[4];
+        if (b <= a) {
+            return result;
+        }
+        double m = 0.5 * (a + b);
+        double fa = f.applyAsDouble(a);
+        double fm = f.applyAsDouble(m);
+        double fb = f.applyAsDouble(b);
+        double whole = (b - a) / 6 * (fa + 4 * fm + fb);
+        double wholeMoment = (b - a) / 6 * (4 * fm * (m - a) + fb * (b - a));
+
+        // Coarse estimate of the magnitude, refined with a few more samples
+        double scale = Math.abs(whole);
+        for (int i = 1; i < 8; i += 2) {
+            scale = Math.max(scale, Math.abs(f.applyAsDouble(a + (b - a) * i / 8)) * (b - a));
+        }
+        double tolerance = relativeTolerance * scale;
+        result[3] = 7;
+
+        step(f, a, b, fa, fm, fb, whole, wholeMoment, a, tolerance, MAX_DEPTH, result);
+        return result;
+    }
+
+    private static void step(DoubleUnaryOperator f,
+                             double a, double b,
+                             double fa, double fm, double fb,
+                             double whole, double wholeMoment,
+                             double yRef, double tolerance, int depth,
+                             double[] result) {
+        double m = 0.5 * (a + b);
+        double lm = 0.5 * (a + m);
+        double rm = 0.5 * (m + b);
+        double flm = f.applyAsDouble(lm);
+        double frm = f.applyAsDouble(rm);
+        result[3] += 2;
+        double h = (b - a) / 12;
+        double left = h * (fa + 4 * flm + fm);
+        double right = h * (fm + 4 * frm + fb);
+        double leftMoment = h * (fa * (a - yRef) + 4 * flm * (lm - yRef) + fm * (m - yRef));
+        double rightMoment = h * (fm * (m - yRef) + 4 * frm * (rm - yRef) + fb * (b - yRef));
+        double delta = left + right - whole;
+
+        if (depth <= 0 || Math.abs(delta) <= 15 * tolerance) {
+            double deltaMoment = leftMoment + rightMoment - wholeMoment;
+            result[0] += left + right + delta / 15;
+            result[1] += leftMoment + rightMoment + deltaMoment / 15;
+            result[2] += Math.abs(delta) / 15;
+            return;
+        }
+        step(f, a, m, fa, flm, fm, left, leftMoment, yRef, 0.5 * tolerance, depth - 1, result);
+        step(f, m, b, fm, frm, fb, right, rightMoment, yRef, 0.5 * tolerance, depth - 1, result);
+    }
+}
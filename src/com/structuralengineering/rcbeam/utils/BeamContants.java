@@ -20,4 +20,10 @@ public class BeamContants {
     public static double COMPRESSIVE_STRENGTH_THRESHOLD = 30;
 
     public static int COMPRESSION_SOLID_DY_ITERATION = 1000;
+
+    /**
+     * Number of strips of the reference strip integration
+     * of the un-cracked section.
+     */
+    public static int UNCRACKED_STRIP_ITERATION = 10000000;
 }
@@ -13,30 +13,57 @@ public class Calculators {
      * @return Area of the polygon.
      */
     public static double calculateArea(List<Node> nodes) {
-        // Add the first node to the end of points.
-        List<Node> newNodes = new ArrayList<>();
-
-        newNodes.addAll(nodes);
-
-        newNodes.add(nodes.get(0));
         // Number of nodes.
-        int n = newNodes.size();
+        int n = nodes.size();
 
         // Initialize area variable.
         double area = 0;
 
         int j;
 
-        // Shoelace formula.
-        for (int i = 0; i < n - 1; i++) {
+        // Shoelace formula, wrapping around to the first node.
+        for (int i = 0; i < n; i++) {
             j = (i + 1) % n;
-            area += newNodes.get(i).getX() * newNodes.get(j).getY();
-            area -= newNodes.get(j).getX() * newNodes.get(i).getY();
+            area += nodes.get(i).getX() * nodes.get(j).getY();
+            area -= nodes.get(j).getX() * nodes.get(i).getY();
         }
         area = Math.abs(area) / 2;
         return area;
     }
 
+    /**
+     * Calculates the area of one ring of a packed polygon.
+     *
+     * @param xs   Packed abscissas.
+     * @param ys   Packed ordinates.
+     * @param from Index of the first node of the ring.
+     * @param to   Index after the last node of the ring.
+     * @return Area of the ring.
+     */
+    public static double calculateArea(double[] xs, double[] ys, int from, int to) {
+        return Math.abs(signedArea(xs, ys, from, to));
+    }
+
+    /**
+     * Shoelace area of one ring of a packed polygon, positive if the nodes
+     * run counter clockwise.
+     *
+     * @param xs   Packed abscissas.
+     * @param ys   Packed ordinates.
+     * @param from Index of the first node of the ring.
+     * @param to   Index after the last node of the ring.
+     * @return Signed area of the ring.
+     */
+    public static double signedArea(double[] xs, double[] ys, int from, int to) {
+        double area = 0;
+        int j;
+        for (int i = from; i < to; i++) {
+            j = i + 1 < to ? i + 1 : from;
+            area += xs[i] * ys[j] - xs[j] * ys[i];
+        }
+        return area / 2;
+    }
+
     /**
      * Centroid of polygon from the top
      *
@@ -46,29 +73,81 @@ public class Calculators {
     public static double calculateCentroidY(List<Node> nodes) {
         double kd = 0;
 
-        List<Node> newNodes = new ArrayList<>();
-
-        newNodes.addAll(nodes);
-
-        // Add the first node to the end of points.
-        newNodes.add(nodes.get(0));
-
         // Number of nodes.
-        int n = newNodes.size();
+        int n = nodes.size();
 
         double area = calculateArea(nodes);
 
-        for (int i = 0; i < (n - 1); i++) {
-            kd += (newNodes.get(i).getY() + newNodes.get(i + 1).getY()) *
-                    (newNodes.get(i).getX() * newNodes.get(i + 1).getY() - newNodes.get(i + 1).getX() * newNodes.get(i).getY());
+        Node ni, nj;
+        for (int i = 0; i < n; i++) {
+            ni = nodes.get(i);
+            nj = nodes.get((i + 1) % n);
+            kd += (ni.getY() + nj.getY()) *
+                    (ni.getX() * nj.getY() - nj.getX() * ni.getY());
         }
 
         kd = Math.abs(kd / (6 * area));
-        kd = Math.abs(highestY(newNodes) - kd);
+        kd = Math.abs(highestY(nodes) - kd);
 
         return kd;
     }
 
+    /**
+     * Centroid of one ring of a packed polygon, measured from the top of the ring.
+     *
+     * @param xs   Packed abscissas.
+     * @param ys   Packed ordinates.
+     * @param from Index of the first node of the ring.
+     * @param to   Index after the last node of the ring.
+     * @return centroid
+     */
+    public static double calculateCentroidY(double[] xs, double[] ys, int from, int to) {
+        double moment = 0;
+        int j;
+        for (int i = from; i < to; i++) {
+            j = i + 1 < to ? i + 1 : from;
+            moment += (ys[i] + ys[j]) * (xs[i] * ys[j] - xs[j] * ys[i]);
+        }
+        double centroidY = moment / (6 * signedArea(xs, ys, from, to));
+        return highestY(ys, from, to) - centroidY;
+    }
+
+    /**
+     * Get the lowest point(y) of one ring of a packed polygon.
+     *
+     * @param ys   Packed ordinates.
+     * @param from Index of the first node of the ring.
+     * @param to   Index after the last node of the ring.
+     * @return Lowest y.
+     */
+    public static double lowestY(double[] ys, int from, int to) {
+        double lowest = ys[from];
+        for (int i = from + 1; i < to; i++) {
+            if (ys[i] < lowest) {
+                lowest = ys[i];
+            }
+        }
+        return lowest;
+    }
+
+    /**
+     * Get the highest point(y) of one ring of a packed polygon.
+     *
+     * @param ys   Packed ordinates.
+     * @param from Index of the first node of the ring.
+     * @param to   Index after the last node of the ring.
+     * @return Highest y.
+     */
+    public static double highestY(double[] ys, int from, int to) {
+        double highest = ys[from];
+        for (int i = from + 1; i < to; i++) {
+            if (ys[i] > highest) {
+                highest = ys[i];
+            }
+        }
+        return highest;
+    }
+
     /**
      * Get the lowest point(y) in a set of vertices.
      *
@@ -0,0 +1,110 @@
+package com.structuralengineering.rcbeam.utils;
+
+import com.structuralengineering.rcbeam.properties.PackedPolygon;
+
+/**
+ * Exact area integrals of a polygon restricted to a horizontal band.
+ *
+ * By Green's theorem, the integral of g(y) over the polygon area is equal to
+ * the contour integral of x * g(y) dy around the polygon. Horizontal edges
+ * (including the cut lines of the band) contribute nothing, so each edge is
+ * integrated on its own over the part of it that lies inside the band.
+ * For g(y) = (y - yRef)^k with k &lt;= 2, x * g(y) is at most a cubic in y,
+ * which Simpson's rule integrates exactly.
+ */
+public final class PolygonIntegrator {
+
+    private PolygonIntegrator() {
+    }
+
+    /**
+     * Area moments of a packed polygon between two elevations, deducting
+     * all hollow rings from the main ring.
+     *
+     * @param polygon Packed main section and clippings.
+     * @param yLo     Lower elevation of the band.
+     * @param yHi     Upper elevation of the band.
+     * @param yRef    Elevation about which the moments are taken.
+     * @return Array consisting of the area, first moment and second moment about yRef.
+     */
+    public static double[] bandMoments(PackedPolygon polygon, double yLo, double yHi, double yRef) {
+        double[] xs = polygon.getXs();
+        double[] ys = polygon.getYs();
+        double[] moments = bandMoments(xs, ys, 0, polygon.getRingEnd(0), yLo, yHi, yRef);
+        double[] clipMoments;
+        for (int r = 1; r < polygon.getRingCount(); r++) {
+            clipMoments = bandMoments(xs, ys, polygon.getRingStart(r), polygon.getRingEnd(r), yLo, yHi, yRef);
+            moments[0] -= clipMoments[0];
+            moments[1] -= clipMoments[1];
+            moments[2] -= clipMoments[2];
+        }
+        return moments;
+    }
+
+    /**
+     * Area moments of the part of one ring of a packed polygon between two
+     * elevations.
+     *
+     * @param xs   Packed abscissas.
+     * @param ys   Packed ordinates.
+     * @param from Index of the first node of the ring.
+     * @param to   Index after the last node of the ring.
+     * @param yLo  Lower elevation of the band.
+     * @param yHi  Upper elevation of the band.
+     * @param yRef Elevation about which the moments are taken.
+     * @return Array consisting of the area, first moment and second moment about yRef.
+     */
+    public static double[] bandMoments(double[] xs, double[] ys, int from, int to,
+                                       double yLo, double yHi, double yRef) {
+        double[] moments = new double[3];
+        if (to - from < 3 || yHi <= yLo) {
+            return moments;
+        }
+
+        int j;
+        for (int i = from; i < to; i++) {
+            j = i + 1 < to ? i + 1 : from;
+            addEdge(xs[i], ys[i], xs[j], ys[j], yLo, yHi, yRef, moments);
+        }
+
+        // Counter clockwise polygons give positive contour integrals.
+        if (Calculators.signedArea(xs, ys, from, to) < 0) {
+            moments[0] = -moments[0];
+            moments[1] = -moments[1];
+            moments[2] = -moments[2];
+        }
+        return moments;
+    }
+
+    /**
+     * Adds the contribution of one edge to the contour integrals.
+     */
+    private static void addEdge(double x0, double y0,
+                                double x1, double y1,
+                                double yLo, double yHi, double yRef,
+                                double[] moments) {
+        if (y0 == y1) {
+            return;
+        }
+        double lo = Calculators.greater(Calculators.lower(y0, y1), yLo);
+        double hi = Calculators.lower(Calculators.greater(y0, y1), yHi);
+        if (hi <= lo) {
+            return;
+        }
+
+        double slope = (x1 - x0) / (y1 - y0);
+        double mid = 0.5 * (lo + hi);
+        double xLo = x0 + slope * (lo - y0);
+        double xMid = x0 + slope * (mid - y0);
+        double xHi = x0 + slope * (hi - y0);
+        double zLo = lo - yRef;
+        double zMid = mid - yRef;
+        double zHi = hi - yRef;
+
+        // Simpson's rule, integrating along the direction of the edge.
+        double h = (y1 > y0 ? hi - lo : lo - hi) / 6;
+        moments[0] += h * (xLo + 4 * xMid + xHi);
+        moments[1] += h * (xLo * zLo + 4 * xMid * zMid + xHi * zHi);
+        moments[2] += h * (xLo * zLo * zLo + 4 * xMid * zMid * zMid + xHi * zHi * zHi);
+    }
+}
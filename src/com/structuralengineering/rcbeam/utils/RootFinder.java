@@ -0,0 +1,183 @@
+package com.structuralengineering.rcbeam.utils;
+
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Bracketed root finding for the equilibrium searches.
+ */
+public final class RootFinder {
+    private static final double EPS = Math.ulp(1.0);
+
+    private RootFinder() {
+    }
+
+    /**
+     * Function that supplies its own derivative.
+     */
+    public interface Differentiable {
+        /**
+         * @param x Point of evaluation.
+         * @return Array consisting of f(x) and f'(x).
+         */
+        double[] valueAndSlope(double x);
+    }
+
+    /**
+     * Brent's method. Combines bisection, secant and inverse quadratic
+     * interpolation, and always keeps the root bracketed, so it converges
+     * whenever f(a) and f(b) differ in sign.
+     *
+     * @param f             Function whose root is looked for.
+     * @param a             One end of the bracket.
+     * @param b             Other end of the bracket.
+     * @param tolerance     Absolute tolerance on the root.
+     * @param maxIterations Maximum number of iterations.
+     * @return RootResult, not converged if the root is not bracketed.
+     */
+    public static RootResult brent(DoubleUnaryOperator f,
+                                   double a,
+                                   double b,
+                                   double tolerance,
+                                   int maxIterations) {
+        double fa = f.applyAsDouble(a);
+        double fb = f.applyAsDouble(b);
+        if (fa == 0) {
+            return new RootResult(a, fa, 0, true);
+        }
+        if ((fa > 0) == (fb > 0) && fb != 0) {
+            // Not bracketed
+            return Math.abs(fa) < Math.abs(fb)
+                    ? new RootResult(a, fa, 0, false)
+                    : new RootResult(b, fb, 0, false);
+        }
+
+        double c = b, fc = fb, d = 0, e = 0;
+        double tol1, xm, p, q, r, s, min1, min2;
+        for (int i = 1; i <= maxIterations; i++) {
+            if ((fb > 0 && fc > 0) || (fb < 0 && fc < 0)) {
+                c = a;
+                fc = fa;
+                d = b - a;
+                e = d;
+            }
+            if (Math.abs(fc) < Math.abs(fb)) {
+                a = b;
+                b = c;
+                c = a;
+                fa = fb;
+                fb = fc;
+                fc = fa;
+            }
+            tol1 = 2 * EPS * Math.abs(b) + 0.5 * tolerance;
+            xm = 0.5 * (c - b);
+            if (Math.abs(xm) <= tol1 || fb == 0) {
+                return new RootResult(b, fb, i, true);
+            }
+            if (Math.abs(e) >= tol1 && Math.abs(fa) > Math.abs(fb)) {
+                // Try interpolation
+                s = fb / fa;
+                if (a == c) {
+                    p = 2 * xm * s;
+                    q = 1 - s;
+                } else {
+                    q = fa / fc;
+                    r = fb / fc;
+                    p = s * (2 * xm * q * (q - r) - (b - a) * (r - 1));
+                    q = (q - 1) * (r - 1) * (s - 1);
+                }
+                if (p > 0) {
+                    q = -q;
+                }
+                p = Math.abs(p);
+                min1 = 3 * xm * q - Math.abs(tol1 * q);
+                min2 = Math.abs(e * q);
+                if (2 * p < Math.min(min1, min2)) {
+                    e = d;
+                    d = p / q;
+                } else {
+                    // Interpolation failed, use bisection
+                    d = xm;
+                    e = d;
+                }
+            } else {
+                d = xm;
+                e = d;
+            }
+            a = b;
+            fa = fb;
+            if (Math.abs(d) > tol1) {
+                b += d;
+            } else {
+                b += xm >= 0 ? tol1 : -tol1;
+            }
+            fb = f.applyAsDouble(b);
+        }
+        return new RootResult(b, fb, maxIterations, false);
+    }
+
+    /**
+     * Newton's method safeguarded by bisection. A Newton step that would
+     * leave the bracket, or that does not shrink fast enough, is replaced by
+     * a bisection step, so the iteration cannot diverge or oscillate.
+     *
+     * @param f             Function and its derivative.
+     * @param a             One end of the bracket.
+     * @param b             Other end of the bracket.
+     * @param x0            Starting point, e.g. the previous solution.
+     * @param tolerance     Absolute tolerance on the root.
+     * @param maxIterations Maximum number of iterations.
+     * @return RootResult, not converged if the root is not bracketed.
+     */
+    public static RootResult safeguardedNewton(Differentiable f,
+                                               double a,
+                                               double b,
+                                               double x0,
+                                               double tolerance,
+                                               int maxIterations) {
+        double fa = f.valueAndSlope(a)[0];
+        double fb = f.valueAndSlope(b)[0];
+        if (fa == 0) {
+            return new RootResult(a, fa, 0, true);
+        }
+        if (fb == 0) {
+            return new RootResult(b, fb, 0, true);
+        }
+        if ((fa > 0) == (fb > 0)) {
+            // Not bracketed
+            return Math.abs(fa) < Math.abs(fb)
+                    ? new RootResult(a, fa, 0, false)
+                    : new RootResult(b, fb, 0, false);
+        }
+
+        // Orient the bracket so that f(xl) < 0 < f(xh)
+        double xl = fa < 0 ? a : b;
+        double xh = fa < 0 ? b : a;
+        double x = x0 > Math.min(a, b) && x0 < Math.max(a, b) ? x0 : 0.5 * (a + b);
+        double dxOld = Math.abs(b - a);
+        double dx = dxOld;
+        double[] fx = f.valueAndSlope(x);
+
+        for (int i = 1; i <= maxIterations; i++) {
+            if (((x - xh) * fx[1] - fx[0]) * ((x - xl) * fx[1] - fx[0]) > 0
+                    || Math.abs(2 * fx[0]) > Math.abs(dxOld * fx[1])) {
+                dxOld = dx;
+                dx = 0.5 * (xh - xl);
+                x = xl + dx;
+            } else {
+                dxOld = dx;
+                dx = fx[0] / fx[1];
+                x -= dx;
+            }
+            fx = f.valueAndSlope(x);
+            if (Math.abs(dx) < tolerance || fx[0] == 0) {
+                return new RootResult(x, fx[0], i, true);
+            }
+            if (fx[0] < 0) {
+                xl = x;
+            } else {
+                xh = x;
+            }
+        }
+        return new RootResult(x, fx[0], maxIterations, false);
+    }
+}
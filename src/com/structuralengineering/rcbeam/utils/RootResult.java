@@ -0,0 +1,34 @@
+package com.structuralengineering.rcbeam.utils;
+
+/**
+ * Outcome of a root search.
+ */
+public class RootResult {
+    private final double root;                          // Best estimate of the root
+    private final double residual;                      // Function value at the root
+    private final int iterations;                       // Number of iterations used
+    private final boolean converged;                    // True if the tolerance was met
+
+    public RootResult(double root, double residual, int iterations, boolean converged) {
+        this.root = root;
+        this.residual = residual;
+        this.iterations = iterations;
+        this.converged = converged;
+    }
+
+    public double getRoot() {
+        return root;
+    }
+
+    public double getResidual() {
+        return residual;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    public boolean isConverged() {
+        return converged;
+    }
+}